@@ -1,5 +1,8 @@
 package adventure;
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.util.ArrayList;
+import java.util.List;
 import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
 
@@ -8,17 +11,27 @@ import org.json.simple.JSONObject;
  */
 public class Adventure implements java.io.Serializable{
     private static final long serialVersionUID = 1L;
+    private static final int SMALL_FOOD = Inventory.Capability.EDIBLE.bit() | Inventory.Capability.TOSSABLE.bit();
+    private static final int BRANDED_CLOTHING = Inventory.Capability.WEARABLE.bit() | Inventory.Capability.READABLE.bit();
     private ArrayList<Item> items;
     private ArrayList<Room> rooms;
-    private ArrayList<Integer> roomIDList;
-    private ArrayList<Integer> itemIDList;
+    private WorldRegistry registry;
     private Room currentRoom;
+    private String source;
+    private transient boolean shared;
+    private transient IntMap<Room> ownRooms;
+    private transient IntMap<Item> ownItems;
+    private transient IntMap<Item> consumedItems;
+    private transient WorldLocks locks;
     /**
      * Sets arraylist of all items
      * @param itemsList arraylist containing all items
      */
     public void setItems(ArrayList<Item> itemsList) {
         items = itemsList;
+        for(Item item : items){
+            registry.addItem(item);
+        }
     }
 
     /**
@@ -27,6 +40,9 @@ public class Adventure implements java.io.Serializable{
      */
     public void setRooms(ArrayList<Room> roomsList) {
         rooms = roomsList;
+        for(Room room : rooms){
+            registry.addRoom(room);
+        }
     }
 
     /**
@@ -35,11 +51,43 @@ public class Adventure implements java.io.Serializable{
     public Adventure(){
         rooms = new ArrayList<Room>();
         items = new ArrayList<Item>();
-        roomIDList = new ArrayList<Integer>();
-        itemIDList = new ArrayList<Integer>();
+        registry = new WorldRegistry();
         currentRoom = null;
     }
 
+    /**
+     * Creates a session's view of a shared adventure. Rooms, items, descriptions and the ID
+     * registry all stay shared with the template; a room or item is only copied the first time
+     * this session changes it, so an extra player costs a few small objects, not a world.
+     * Items reach the session's inventory through takeCommand, which copies them.
+     * @param template the shared adventure, which is never changed through this one
+     */
+    public Adventure(Adventure template){
+        rooms = template.rooms;
+        items = template.items;
+        registry = template.registry;
+        currentRoom = template.currentRoom;
+        source = template.source;
+        shared = true;
+    }
+
+    /**
+     * Creates a player's view of an adventure played by several players at once. Rooms and
+     * items are shared and changed in place, so every player sees what the others take and
+     * toss; only the current room belongs to this view. Rooms and the item list are read and
+     * changed under the world's locks.
+     * @param world the adventure shared by every player
+     * @param worldLocks the locks guarding the shared adventure
+     */
+    public Adventure(Adventure world, WorldLocks worldLocks){
+        rooms = world.rooms;
+        items = world.items;
+        registry = world.registry;
+        currentRoom = world.currentRoom;
+        source = world.source;
+        locks = worldLocks;
+    }
+
     /**
      * Constructor for adventure that initializes member variables, rooms, and items.
      * @param jsonAdventure a JSONObject of the adventure that the user will play
@@ -47,24 +95,60 @@ public class Adventure implements java.io.Serializable{
     public Adventure(JSONObject jsonAdventure) throws Exception{
         rooms = new ArrayList<Room>();
         items = new ArrayList<Item>();
-        roomIDList = new ArrayList<Integer>();
-        itemIDList = new ArrayList<Integer>();
-        
-        initializeItems((JSONArray) jsonAdventure.get("item"));
-        initializeRooms((JSONArray) jsonAdventure.get("room")); 
-        testJSON((JSONArray) jsonAdventure.get("room")); 
+        JSONArray itemList = (JSONArray) jsonAdventure.get("item");
+        JSONArray roomList = (JSONArray) jsonAdventure.get("room");
+        registry = new WorldRegistry(roomList.size(), itemList.size());
+
+        initializeItems(itemList);
+        initializeRooms(roomList); 
+        testJSON(); 
+    }
+
+    /**
+     * Checks the loaded rooms for logic errors in one pass.
+     * @throws InvalidAdventureException listing every logic error found
+     */
+    public void testJSON() throws InvalidAdventureException{
+        testJSON(1);
     }
 
     /**
-     * Calls multiple methods to test if the JSON file has logic errors.
-     * @param roomList JSONArray of rooms in JSON file
-     * @throws Exception if a test method finds a logic error
+     * Checks the loaded rooms for logic errors, spreading the rooms across threads.
+     * @param threads number of threads to check rooms on
+     * @throws InvalidAdventureException listing every logic error found
      */
-    public void testJSON(JSONArray roomList) throws Exception{
-        testExitCompleteness();
-        testNoExits();
-        testExitCompletenessAcrossRooms(roomList);
-        testItemCompleteness();
+    public void testJSON(int threads) throws InvalidAdventureException{
+        List<Violation> violations = new AdventureValidator().validate(this, threads);
+        if(violations.size() > 0){
+            throw new InvalidAdventureException(violations);
+        }
+    }
+
+    /**
+     * Connects every room's recorded entrances and places its recorded loot, once all rooms
+     * and items have been added. Used by loaders that see IDs before the rooms or items they name.
+     */
+    public void resolveReferences(){
+        for(Room room : rooms){
+            room.resolveConnections(registry);
+            room.resolveLoot(registry);
+        }
+    }
+
+    /**
+     * Creates the item subclass that matches the flags set on a JSON item.
+     * @param item JSONObject containing all the details of the item
+     * @return the new item
+     */
+    public static Item createItem(JSONObject item){
+        int flags = Inventory.Capability.flagMask(item);
+        if((flags & SMALL_FOOD) == SMALL_FOOD){ return new SmallFood(item);}
+        else if((flags & BRANDED_CLOTHING) == BRANDED_CLOTHING){ return new BrandedClothing(item);}
+        else if(Inventory.Capability.EDIBLE.in(flags)){ return new Food(item);}
+        else if(Inventory.Capability.WEARABLE.in(flags)){ return new Clothing(item);}
+        else if(Inventory.Capability.TOSSABLE.in(flags)){ return new Weapon(item);}
+        else if(Inventory.Capability.READABLE.in(flags)){ return new Spell(item);}
+        return new Item(item);
     }
 
     /**
@@ -73,15 +157,7 @@ public class Adventure implements java.io.Serializable{
      */
     private void initializeItems(JSONArray itemList){
         for(Object currentItem : itemList){
-            JSONObject item = (JSONObject) currentItem;
-            if(item.containsKey("edible") && item.containsKey("tossable")){ addItem(new SmallFood(item));}
-            else if(item.containsKey("wearable") && item.containsKey("readable")){ addItem(new BrandedClothing(item));}
-            else if(item.containsKey("edible")){ addItem(new Food(item));}
-            else if(item.containsKey("wearable")){ addItem(new Clothing(item));}
-            else if(item.containsKey("tossable")){ addItem(new Weapon(item));}
-            else if(item.containsKey("readable")){ addItem(new Spell(item));}
-            else addItem(new Item(item));
-            itemIDList.add(((Long)item.get("id")).intValue());
+            addItem(createItem((JSONObject) currentItem));
         }
     }
 
@@ -93,154 +169,197 @@ public class Adventure implements java.io.Serializable{
         for(Object curRoom : roomList){
             JSONObject room = (JSONObject) curRoom;       
             Room newRoom = new Room(room);  
-            roomIDList.add(((Long)room.get("id")).intValue());   
             addRoom(newRoom);
             if(room.containsKey("entrance")){
-                testRoomExitSyntax((JSONArray) room.get("entrance"));
-            }else{
-                throw new Exception("Room has no entrance array.");
+                for(Object currentEntrance : (JSONArray) room.get("entrance")){
+                    JSONObject entrance = (JSONObject) currentEntrance;
+                    newRoom.addEntrance(((Long) entrance.get("id")).intValue(), (String) entrance.get("dir"));
+                }
             }
             
-            
-            
             if(room.containsKey("start")){
                 setCurrentRoom(newRoom);
             }
             
             if(room.containsKey("loot")){
                 JSONArray lootList = (JSONArray) room.get("loot");
-                newRoom.initializeLoot(items, lootList);
+                newRoom.initializeLoot(registry, lootList);
             }
                      
         }
         
-        for(int i = 0; i < rooms.size(); i++){
-            JSONArray entranceList = (JSONArray)((JSONObject) roomList.get(i)).get("entrance");
-            rooms.get(i).initializeConnections(rooms, entranceList);
+        for(Room room : rooms){
+            room.resolveConnections(registry);
         }
         
     }
 
     /**
-     * Tests if any entrances in JSON file are incorrectly named.
-     * @param entranceList JSONArray of entrances from JSON file
-     * @throws Exception if an entrance is not named is JSON properly
+     * Gets an arraylist of all rooms in the adventure.
+     * @return arraylist of all rooms in the adventure
      */
-    public void testRoomExitSyntax(JSONArray entranceList) throws Exception{
-        for(Object currentEntrance : entranceList){
-            JSONObject entrance = (JSONObject) currentEntrance;
-            String entranceDir = (String) entrance.get("dir");
-            if(!entranceDir.matches("(?i)|N|E|S|W|up|down")){
-                
-                throw new Exception("Room has entrance not matching proper syntax.");
-            }
+    public ArrayList<Room> listAllRooms(){
+        if(ownRooms == null){
+            return rooms;
         }
+        ArrayList<Room> current = new ArrayList<Room>(rooms.size());
+        for(Room room : rooms){
+            current.add(getRoom(room));
+        }
+        return current;
     }
 
     /**
-     * Tests if there is an entrance ID that doesnt lead to a room.
-     * @throws Exception if there is an entrance ID that doesnt lead to a room
+     * Gets an arraylist of all items in the adventure.
+     * @return arraylist of all items in the adventure
      */
-    public void testExitCompleteness() throws Exception{
-        for(Room room : rooms){
-            for(Integer entranceID : room.getEntranceIDList()){
-                if(!roomIDList.contains(entranceID.intValue())){
-                    
-                    throw new Exception("Entrance ID does not correspond to any room.");
-                }
+    public ArrayList<Item> listAllItems(){
+        if(ownItems == null && consumedItems == null){
+            return items;
+        }
+        ArrayList<Item> current = new ArrayList<Item>(items.size());
+        for(Item item : items){
+            if(consumedItems != null && consumedItems.containsKey(item.getID())){
+                continue;
             }
+            Item own = ownItems == null ? null : ownItems.get(item.getID());
+            current.add(own == null ? item : own);
         }
+        return current;
     }
 
     /**
-     * Tests to see if any room has no exits.
-     * @throws Exception if any room has no exits
+     * Checks if this adventure shares its rooms and items with a template.
+     * @return true if rooms and items are copied before they are changed, false if not
      */
-    public void testNoExits() throws Exception{
-        for (Room room : rooms){
-            if(room.getEntranceIDList().size() == 0){
-                
-                throw new Exception("Room has no exits.");
-            }
+    public boolean isShared(){
+        return shared;
+    }
+
+    /**
+     * Gets the locks guarding an adventure shared by several players.
+     * @return the world's locks, null if this adventure has a single player
+     */
+    public WorldLocks getLocks(){
+        return locks;
+    }
+
+    /**
+     * Locks a room against other players, if the adventure is shared by several.
+     * @param room the room about to be read or changed
+     */
+    private void lockRoom(Room room){
+        if(locks != null){
+            locks.lockRoom(room);
         }
     }
 
     /**
-     * Tests to see that all the rooms are connected properly according to the JSON.
-     * @param roomList JSONArray of rooms from the adventure JSON
-     * @throws Exception if connectedroom exits dont match up properly
+     * Unlocks a room locked by lockRoom.
+     * @param room the room that was locked
      */
-    public void testExitCompletenessAcrossRooms(JSONArray roomList) throws Exception{
-        for(int i = 0; i < roomList.size(); i ++){
-            JSONObject room = (JSONObject) roomList.get(i);
-            JSONArray entranceList = (JSONArray) room.get("entrance");
-            testAcrossRoomsExtension(entranceList, i);
+    private void unlockRoom(Room room){
+        if(locks != null){
+            locks.unlockRoom(room);
         }
     }
 
     /**
-     * Tests to see that all the rooms are connected properly according to the JSON.
-     * @param entranceList jsonarray of entrances
-     * @param i current for loop index
-     * @throws Exception if JSON has logic error
+     * Finds an item in the current room by name, locking the room if it is shared.
+     * @param name the item's name, in any case
+     * @return the item, null if it isn't in the room
      */
-    public void testAcrossRoomsExtension(JSONArray entranceList, int i) throws Exception{
-        for(Object currentEntrance : entranceList){
-            JSONObject entrance = (JSONObject) currentEntrance;
-            String entranceDir = (String) entrance.get("dir");
-            Room conRoom = rooms.get(i).getConnectedRoom(entranceDir);
-            if(rooms.get(i) != conRoom.getConnectedRoom(getOpposite(entranceDir))){
-                throw new Exception("Room exits do not match across rooms.");
-            }
+    Item findRoomItem(String name){
+        lockRoom(currentRoom);
+        try {
+            return currentRoom.findItem(name);
+        } finally {
+            unlockRoom(currentRoom);
         }
     }
 
     /**
-     * Tests if there is an item in the JSON loot that doesnt correspond to any game item
-     * @throws Exception if there is an item in the JSON loot that doesnt correspond to any game item
+     * Gets this adventure's version of a room, which is a copy if this session has changed
+     * a shared room and the room itself otherwise.
+     * @param room a room of the adventure, possibly the shared original
+     * @return the room as this session sees it, null if room is null
      */
-    public void testItemCompleteness() throws Exception{
-        for(Room room : rooms){
-            for(Integer lootID : room.getLootIDList()){
-                if(!itemIDList.contains(lootID.intValue())){
-                    throw new Exception("Loot ID does not correspond to any item.");
-                }
+    public Room getRoom(Room room){
+        if(ownRooms == null || room == null){
+            return room;
+        }
+        Room own = ownRooms.get(room.getID());
+        return own == null ? room : own;
+    }
+
+    /**
+     * Gets a version of a room this adventure may change, copying a shared room the first time.
+     * @param room a room of the adventure
+     * @return the room, or this session's copy of it
+     */
+    private Room writableRoom(Room room){
+        if(!shared){
+            return room;
+        }
+        if(ownRooms == null){
+            ownRooms = new IntMap<Room>();
+        }
+        Room own = ownRooms.get(room.getID());
+        if(own == null){
+            own = new Room(room);
+            ownRooms.put(room.getID(), own);
+            if(currentRoom == room){
+                currentRoom = own;
             }
         }
+        return own;
     }
 
     /**
-     * Gets the opposite direction of the one passed in.
-     * @param dir original direction
-     * @return string containing the opposite direction of the one passed in
+     * Gets a version of an item this adventure may change, copying a shared item the first time.
+     * @param item an item of the adventure
+     * @return the item, or this session's copy of it
      */
-    private String getOpposite(String dir){
-       if(dir.equalsIgnoreCase("N")){ return "S";}
-       else if(dir.equalsIgnoreCase("S")){ return "N";}
-       else if(dir.equalsIgnoreCase("E")){ return "W";}
-       else if(dir.equalsIgnoreCase("W")){ return "E";}
-       else if(dir.equalsIgnoreCase("Up")){ return "DOWN";}
-       else if(dir.equalsIgnoreCase("Down")){ return "UP";}
-       else if(dir.equalsIgnoreCase("N")){ return "S";}
-       return null;
+    private Item writableItem(Item item){
+        if(!shared){
+            return item;
+        }
+        if(ownItems == null){
+            ownItems = new IntMap<Item>();
+        }
+        Item own = ownItems.get(item.getID());
+        if(own == null){
+            own = item.copy();
+            ownItems.put(item.getID(), own);
+        }
+        return own;
+    }
+ 
+    /**
+     * Gets where the adventure was loaded from.
+     * @return path of the adventure file, Game.DEFAULT_SOURCE for the default adventure,
+     * or null if it is not known
+     */
+    public String getSource(){
+        return source;
     }
 
     /**
-     * Gets an arraylist of all rooms in the adventure.
-     * @return arraylist of all rooms in the adventure
+     * Sets where the adventure was loaded from, so saves can record only what has changed.
+     * @param adventureSource path of the adventure file, or Game.DEFAULT_SOURCE
      */
-    public ArrayList<Room> listAllRooms(){
-        return rooms;
+    public void setSource(String adventureSource){
+        source = adventureSource;
     }
 
     /**
-     * Gets an arraylist of all items in the adventure.
-     * @return arraylist of all items in the adventure
+     * Gets the ID index of every room and item in the adventure.
+     * @return registry of rooms and items by ID
      */
-    public ArrayList<Item> listAllItems(){
-        return items;
+    public WorldRegistry getRegistry(){
+        return registry;
     }
- 
+
     /**
      * Gets a long description of the current room.
      * @return a string containing the long description of the current room
@@ -254,8 +373,7 @@ public class Adventure implements java.io.Serializable{
      * @param room A room object that represents the room the user has just entered
      */
     public void setCurrentRoom(Room room){
-        currentRoom = room;
-        Game.getPlayer().setCurrentRoom(room);
+        currentRoom = getRoom(room);
     }
 
     /**
@@ -272,6 +390,7 @@ public class Adventure implements java.io.Serializable{
      */
     public void addRoom(Room newRoom){
         rooms.add(newRoom);
+        registry.addRoom(newRoom);
     }
 
     /**
@@ -280,78 +399,104 @@ public class Adventure implements java.io.Serializable{
      */
     public void addItem(Item newItem){
         items.add(newItem);
+        registry.addItem(newItem);
     }
 
     /**
-     * Removes items from items arraylist.
+     * Removes items from items arraylist. A session of a shared adventure leaves the shared
+     * list alone and only remembers the item's ID, so listAllItems leaves it out.
      * @param itemForRemoval items to be removed
      */
     public void removeItem(Item itemForRemoval){
-        if(items.contains(itemForRemoval)){
+        if(locks != null){
+            locks.lockItems();
+            try {
+                items.remove(itemForRemoval);
+            } finally {
+                locks.unlockItems();
+            }
+        }else if(shared){
+            if(consumedItems == null){
+                consumedItems = new IntMap<Item>();
+            }
+            consumedItems.put(itemForRemoval.getID(), itemForRemoval);
+        }else if(items.contains(itemForRemoval)){
             items.remove(itemForRemoval);
         }
     }
 
+    /**
+     * Restores a serialized adventure, rebuilding the ID registry for saves made before it existed.
+     * @param in stream the adventure is read from
+     * @throws IOException if the stream cannot be read
+     * @throws ClassNotFoundException if a serialized class cannot be found
+     */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException{
+        in.defaultReadObject();
+        if(registry == null){
+            registry = new WorldRegistry(rooms.size(), items.size());
+            for(Room room : rooms){
+                registry.addRoom(room);
+                for(Item item : room.listItems()){
+                    registry.addItem(item);
+                }
+            }
+            for(Item item : items){
+                registry.addItem(item);
+            }
+        }
+    }
 
     /**
      * Gets information about the rooms and items in the advenure
      * @return a string containing the 
      */
     public String toString(){
-        String str = "";
+        StringBuilder str = new StringBuilder();
 
         if(listAllRooms().size() > 0){
-            str += "Rooms in adventure:\n\n";
+            str.append("Rooms in adventure:\n\n");
             for(Room room : listAllRooms()){
-                str += room.toString() + "\n";
+                str.append(room.toString()).append('\n');
             }
-            str += "\n";
+            str.append('\n');
         }
-        return str;
+        return str.toString();
     }
 
     /**
-     * Parses user command and calls function according to what the command is.
+     * Carries out the user command through the handler its verb was resolved to when it was parsed.
      * @param cmd the user's command
      * @return a string containing what the game should print, null if quitting.
      */
     public String parseCommand(Command cmd){
-        String str = null;
-        if(!cmd.hasSecondWord()){
-            if(cmd.getActionWord().equalsIgnoreCase("look")){ str = lookCommandOne();}
-            else if(cmd.getActionWord().equalsIgnoreCase("help")){ str = helpCommand(); }  
-            else if(cmd.getActionWord().equalsIgnoreCase("inventory")){ str = inventoryCommand(); }  
-            else if(cmd.getActionWord().equalsIgnoreCase("items")){ str = itemsCommand();}  
-        }else{
-            str = parseTwoWordCommand(cmd);     
+        StringBuilder out = new StringBuilder();
+        if(!parseCommand(cmd, out)){
+            return null;
         }
-
-        return str;
+        return out.toString();
     }
+
     /**
-     * Parses user command if it is two words and calls function according to what the command is.
-     * @param cmd the user's two word command
-     * @return a string containing what the game should print
+     * Carries out the user command, appending what the game should print to a buffer.
+     * The buffer can be cleared and reused for every command.
+     * @param cmd the user's command
+     * @param out buffer the output is appended to
+     * @return false if quitting, true otherwise
      */
-
-    private String parseTwoWordCommand(Command cmd){
-        String str = null;
-        if(cmd.getActionWord().equalsIgnoreCase("go")){ str = goCommand(cmd.getNoun());}
-        else if(cmd.getActionWord().equalsIgnoreCase("look")){ str = lookCommandTwo(cmd.getNoun());}
-        else if(cmd.getActionWord().equalsIgnoreCase("take")){ str = takeCommand(cmd.getNoun());}
-        else if(cmd.getActionWord().equalsIgnoreCase("eat")){ str = eatCommand(cmd.getNoun());}
-        else if(cmd.getActionWord().equalsIgnoreCase("wear")){ str = wearCommand(cmd.getNoun());}
-        else if(cmd.getActionWord().equalsIgnoreCase("toss")){ str = tossCommand(cmd.getNoun());}
-        else if(cmd.getActionWord().equalsIgnoreCase("read")){ str = readCommand(cmd.getNoun());}
-
-        return str;
+    public boolean parseCommand(Command cmd, StringBuilder out){
+        VerbHandler verb = cmd.getVerb();
+        if(verb == null || (cmd.hasSecondWord() ? !verb.isTwoWord() : !verb.isOneWord())){
+            return false;
+        }
+        return verb.render(cmd, this, out);
     }
 
     /**
      * Executes the look command if it's one word.
      * @return string containing current room info.
      */
-    private String lookCommandOne(){
+    String lookCommandOne(){
         String str = currentRoom.getLongDescription() + "\n";
         return str;
     }
@@ -361,12 +506,11 @@ public class Adventure implements java.io.Serializable{
      * @param itemName item being looked at
      * @return string containing item description
      */
-    private String lookCommandTwo(String itemName){
+    String lookCommandTwo(String itemName){
         String str = "";
-        for(Item item : currentRoom.listItems()){
-            if(itemName.equalsIgnoreCase(item.getName())){
-                str = item.getLongDescription() + "\n";
-            }
+        Item item = findRoomItem(itemName);
+        if(item != null){
+            str = item.getLongDescription() + "\n";
         }
         return str;
     }
@@ -375,7 +519,7 @@ public class Adventure implements java.io.Serializable{
      * Gets instructions for the game.
      * @return a string containing full game instructions
      */
-    private String helpCommand(){
+    String helpCommand(){
         String str = "Enter 'quit' or 'q' to quit, 'items' to see a list of items in the " 
         + "current room, 'look' to see a long description of the room, "
         + "'take <item name>' to take an item in the room and put it in your inventory, "
@@ -391,50 +535,76 @@ public class Adventure implements java.io.Serializable{
 
     /**
      * Prints the names of items in a user's inventory.
+     * @param player the player whose inventory is listed
      * @return string containing the user's inventory item names
      */
-    private String inventoryCommand(){
-        String str = "";
-        if(Game.getPlayer().getInventory().size() == 0){
-            str = "There are no items in your inventory.\n";
+    String inventoryCommand(Player player){
+        StringBuilder out = new StringBuilder();
+        renderInventory(player, out);
+        return out.toString();
+    }
+
+    /**
+     * Appends the names of items in a user's inventory to a buffer.
+     * @param player the player whose inventory is listed
+     * @param out buffer the names are appended to
+     */
+    void renderInventory(Player player, StringBuilder out){
+        if(player.getInventory().size() == 0){
+            out.append("There are no items in your inventory.\n");
         }else{
-            for(Item item : Game.getPlayer().getInventory()){
-                str += item.getName() + "\n";
+            for(Item item : player.getInventory()){
+                out.append(item.getName()).append('\n');
             }
         }
-
-        return str;
     }
 
     /**
      * Prints the names of items in the room.
      * @return string containing names of items in the room
      */
-    private String itemsCommand(){
-        String str = "";
-        if(getCurrentRoom().listItems().size() == 0){
-            str = "There are no items in this room.\n";
-        }else{
-            for(Item item : getCurrentRoom().listItems()){
-                str += item.getName() + "\n";
-            }
-        }
+    String itemsCommand(){
+        StringBuilder out = new StringBuilder();
+        renderItems(getCurrentRoom(), out);
+        return out.toString();
+    }
 
-        return str;
+    /**
+     * Appends the names of items in a room to a buffer, reusing the room's last rendered view.
+     * @param room the room whose items are listed
+     * @param out buffer the names are appended to
+     */
+    void renderItems(Room room, StringBuilder out){
+        lockRoom(room);
+        try {
+            room.renderItemNames(out);
+        } finally {
+            unlockRoom(room);
+        }
     }
 
     /**
      * Changes the current room according to user command.
+     * @param player the player who is moving
      * @param dir direction of room to move the user to
      * @return String containing new room details
      */
-    private String goCommand(String dir){
-        String str = "";
+    String goCommand(Player player, String dir){
+        StringBuilder out = new StringBuilder();
+        renderGo(player, dir, out);
+        return out.toString();
+    }
 
+    /**
+     * Changes the current room according to user command, appending the new room details to a buffer.
+     * @param player the player who is moving
+     * @param dir direction of room to move the user to
+     * @param out buffer the room details are appended to
+     */
+    void renderGo(Player player, String dir, StringBuilder out){
         setCurrentRoom(currentRoom.getConnectedRoom(dir));
-        str += newRoomString(currentRoom);
-
-        return str;
+        player.setCurrentRoom(currentRoom);
+        renderRoom(currentRoom, out);
     }
 
     /**
@@ -443,40 +613,61 @@ public class Adventure implements java.io.Serializable{
      * @return string containing room information
      */
     public String newRoomString(Room room){
-        String str  = "";
-        str += "You are in " + currentRoom.getName() + "\n";
-        str += currentRoom.getShortDescription() + "\n";
-        str +="Items:\n";
-        str += itemsCommand();
+        StringBuilder out = new StringBuilder();
+        renderRoom(room, out);
+        return out.toString();
+    }
 
-        return str;
+    /**
+     * Appends information about a newly entered room to a buffer. The room keeps the text
+     * until its name, short description or items change.
+     * @param room the room being entered
+     * @param out buffer the room information is appended to
+     */
+    public void renderRoom(Room room, StringBuilder out){
+        lockRoom(room);
+        try {
+            room.renderView(out);
+        } finally {
+            unlockRoom(room);
+        }
     }
 
     /**
-     * Takes an item out of a room, and puts it in inventory.
+     * Takes an item out of a room, and puts it in inventory. In a shared adventure the item is
+     * found and taken under the room's lock, so if another player took it first this player
+     * is told it isn't there.
      * @param itemName name of the item being put into inventory
+     * @param player the player taking the item
      * @return String containing a confirmation of item being put into inventory
      */
-    private String takeCommand(String itemName){
+    String takeCommand(Player player, String itemName){
         String str = "";
-        Item item = null;
-        for(Item curItem : currentRoom.listItems()){
-            if(itemName.equalsIgnoreCase(curItem.getName())){
-                item = curItem;
+        Room room = writableRoom(currentRoom);
+        player.setCurrentRoom(currentRoom);
+        lockRoom(room);
+        try {
+            Item item = room.findItem(itemName);
+            if(item == null){
+                return new ValidationResult(Command.Problem.NOT_IN_ROOM, Verb.TAKE.getWord(), Verb.TAKE, itemName, null).getMessage();
             }
+            executeTakeCommand(player, item);
+        } finally {
+            unlockRoom(room);
         }
-        executeTakeCommand(item);
         return str;
     }
     /**
      * Executes the take command.
+     * @param player the player taking the item
      * @param item items to be take
      * @return string with take confirmation
      */
-    private String executeTakeCommand(Item item){
+    private String executeTakeCommand(Player player, Item item){
         String str = "";
-        Game.getPlayer().addItem(item);
         currentRoom.removeItem(item);
+        item = writableItem(item);
+        player.addItem(item);
         item.setContainingRoom(null);
         str = "You put " + item.getName() + " in your inventory.\n";
 
@@ -485,70 +676,74 @@ public class Adventure implements java.io.Serializable{
 
     /**
      * Executes the eat command. Takes the item out of the game.
+     * @param player the player using the item
      * @param itemName item to be eaten
      * @return string containing feedback from eating the item
      */
-    private String eatCommand(String itemName){
+    String eatCommand(Player player, String itemName){
         String str = "";
-        Item item = null;
-        for(Item curItem : Game.getPlayer().getInventory()){
-            if(itemName.equalsIgnoreCase(curItem.getName())){ item = curItem;}
-        }
-        Game.getPlayer().removeItem(item);
+        Item item = player.getInventoryIndex().find(itemName);
+        player.removeItem(item);
         removeItem(item);
-        currentRoom.removeItem(item);
-        str += ((Food)item).eat();
+        lockRoom(currentRoom);
+        try {
+            currentRoom.removeItem(item);
+        } finally {
+            unlockRoom(currentRoom);
+        }
+        str += item.eat();
 
         return str;
     }
 
     /**
      * Executes the wear command. User equips the item
+     * @param player the player using the item
      * @param itemName item to be worn
      * @return string containing feedback from wearing the item
      */
-    private String wearCommand(String itemName){
+    String wearCommand(Player player, String itemName){
         String str = "";
-        Item item = null;
-        for(Item curItem : Game.getPlayer().getInventory()){
-            if(itemName.equalsIgnoreCase(curItem.getName())){ item = curItem;}
-        }
+        Item item = player.getInventoryIndex().find(itemName);
         item.setItemName(item.getName() + " (Equipped)");
-        str += ((Clothing)item).wear();
+        item.setEquipped(true);
+        str += item.wear();
         return str;
     }
 
     /**
      * Executes the toss command. Takes the item out of inventory and puts it in current room.
+     * @param player the player using the item
      * @param itemName item to be tossed
      * @return string containing feedback from tossing the item
      */
-    private String tossCommand(String itemName){
+    String tossCommand(Player player, String itemName){
         String str = "";
-        Item item = null;
-        for(Item curItem : Game.getPlayer().getInventory()){
-            if(itemName.equalsIgnoreCase(curItem.getName())){ item = curItem;}
-        }
-        if(item instanceof SmallFood){ str += ((SmallFood)item).toss();}
-        else if(item instanceof Weapon){ str += ((Weapon)item).toss();}
-        Game.getPlayer().removeItem(item);
-        currentRoom.addItem(item);
+        Item item = player.getInventoryIndex().find(itemName);
+        str += item.toss();
+        player.removeItem(item);
+        Room room = writableRoom(currentRoom);
+        player.setCurrentRoom(currentRoom);
+        lockRoom(room);
+        try {
+            room.addItem(item);
+            item.setContainingRoom(room);
+        } finally {
+            unlockRoom(room);
+        }
         return str;
     }
 
     /**
      * Executes the read command. Reads item description.
+     * @param player the player using the item
      * @param itemName item to be read
      * @return string containing feedback from reading the item
      */
-    private String readCommand(String itemName){
+    String readCommand(Player player, String itemName){
         String str = "";
-        Item item = null;
-        for(Item curItem : Game.getPlayer().getInventory()){
-            if(itemName.equalsIgnoreCase(curItem.getName())){ item = curItem;}
-        }
-        if(item instanceof BrandedClothing){ str += ((BrandedClothing)item).read();}
-        else if(item instanceof Spell){ str += ((Spell)item).read();}
+        Item item = player.getInventoryIndex().find(itemName);
+        str += item.read();
 
         return str;
     }
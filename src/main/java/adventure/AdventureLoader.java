@@ -0,0 +1,262 @@
+package adventure;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.ContentHandler;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+
+/**
+ * Builds an adventure straight from the tokens of an adventure JSON file, without
+ * first parsing the file into a JSONObject tree. Only the fields of the room or item
+ * currently being read are held; entrance and loot IDs are resolved once the whole
+ * file has been read, so rooms and items may appear in any order. Every string value is
+ * passed through a StringPool, so repeated names, directions and descriptions are shared
+ * by the rooms and items built from them.
+ */
+public class AdventureLoader implements ContentHandler{
+    private static final int IN_NOTHING = 0;
+    private static final int IN_ROOM = 1;
+    private static final int IN_ITEM = 2;
+    private static final int IN_ENTRANCE = 3;
+    private static final int IN_LOOT = 4;
+
+    private Adventure adventure;
+    private ArrayList<String> path;
+    private int scope;
+    private HashMap<String, Object> fields;
+    private ArrayList<Integer> entranceIDs;
+    private ArrayList<String> entranceDirs;
+    private ArrayList<Integer> lootIDs;
+    private Long entranceID;
+    private String entranceDir;
+    private Long lootID;
+    private String error;
+    private int validationThreads;
+    private DescriptionStore descriptions;
+    private StringPool strings;
+
+    /**
+     * Default constructor. Initializes member variables.
+     */
+    public AdventureLoader(){
+        path = new ArrayList<String>();
+        fields = new HashMap<String, Object>();
+        entranceIDs = new ArrayList<Integer>();
+        entranceDirs = new ArrayList<String>();
+        lootIDs = new ArrayList<Integer>();
+        strings = new StringPool();
+        validationThreads = 1;
+    }
+
+    /**
+     * Sets how many threads the loaded adventure is validated on.
+     * @param threads number of validation threads, 1 to validate on the loading thread
+     */
+    public void setValidationThreads(int threads){
+        validationThreads = threads;
+    }
+
+    /**
+     * Sets a store that room and item descriptions are moved into as they are read, so they
+     * are not kept on the heap.
+     * @param store the store for descriptions, null to keep descriptions in the rooms and items
+     */
+    public void setDescriptionStore(DescriptionStore store){
+        descriptions = store;
+    }
+
+    /**
+     * Gets the pool the strings of the last loaded adventure were shared through.
+     * @return the string pool of the last load
+     */
+    public StringPool getStringPool(){
+        return strings;
+    }
+
+    /**
+     * Reads an adventure JSON file and builds the adventure it describes.
+     * @param reader reader positioned at the start of the adventure JSON
+     * @return the loaded and validated adventure
+     * @throws InvalidAdventureException listing every logic error if the adventure has any
+     * @throws Exception if the JSON cannot be parsed
+     */
+    public Adventure load(Reader reader) throws Exception{
+        adventure = new Adventure();
+        strings = new StringPool();
+        path.clear();
+        scope = IN_NOTHING;
+        error = null;
+
+        new JSONParser().parse(reader, this);
+        if(error != null){
+            throw new Exception(error);
+        }
+        if(adventure.listAllRooms().size() == 0){
+            throw new Exception("Adventure has no rooms.");
+        }
+
+        adventure.resolveReferences();
+        adventure.testJSON(validationThreads);
+        return adventure;
+    }
+
+    @Override
+    public void startJSON() throws ParseException, IOException{
+    }
+
+    @Override
+    public void endJSON() throws ParseException, IOException{
+    }
+
+    @Override
+    public boolean startObject() throws ParseException, IOException{
+        if(isAt("adventure", "room")){
+            scope = IN_ROOM;
+            fields.clear();
+            entranceIDs.clear();
+            entranceDirs.clear();
+            lootIDs.clear();
+        }else if(isAt("adventure", "item")){
+            scope = IN_ITEM;
+            fields.clear();
+        }else if(isAt("adventure", "room", "entrance")){
+            scope = IN_ENTRANCE;
+            entranceID = null;
+            entranceDir = null;
+        }else if(isAt("adventure", "room", "loot")){
+            scope = IN_LOOT;
+            lootID = null;
+        }
+        return true;
+    }
+
+    @Override
+    public boolean endObject() throws ParseException, IOException{
+        if(scope == IN_ROOM && isAt("adventure", "room")){
+            finishRoom();
+            scope = IN_NOTHING;
+        }else if(scope == IN_ITEM && isAt("adventure", "item")){
+            Item newItem = Adventure.createItem(new JSONObject(fields));
+            if(descriptions != null){
+                descriptions.store(newItem);
+            }
+            adventure.addItem(newItem);
+            scope = IN_NOTHING;
+        }else if(scope == IN_ENTRANCE && isAt("adventure", "room", "entrance")){
+            if(entranceID == null){
+                return fail("Room has entrance with no ID.");
+            }
+            entranceIDs.add(entranceID.intValue());
+            entranceDirs.add(entranceDir);
+            scope = IN_ROOM;
+        }else if(scope == IN_LOOT && isAt("adventure", "room", "loot")){
+            if(lootID == null){
+                return fail("Room has loot with no ID.");
+            }
+            lootIDs.add(lootID.intValue());
+            scope = IN_ROOM;
+        }
+        return error == null;
+    }
+
+    @Override
+    public boolean startObjectEntry(String key) throws ParseException, IOException{
+        path.add(key);
+        return true;
+    }
+
+    @Override
+    public boolean endObjectEntry() throws ParseException, IOException{
+        path.remove(path.size() - 1);
+        return true;
+    }
+
+    @Override
+    public boolean startArray() throws ParseException, IOException{
+        return true;
+    }
+
+    @Override
+    public boolean endArray() throws ParseException, IOException{
+        return true;
+    }
+
+    @Override
+    public boolean primitive(Object value) throws ParseException, IOException{
+        if(value instanceof String){
+            value = strings.intern((String) value);
+        }
+        if(path.size() == 3 && (scope == IN_ROOM || scope == IN_ITEM)){
+            fields.put(path.get(2), value);
+        }else if(scope == IN_ENTRANCE && path.size() == 4){
+            String key = path.get(3);
+            if(key.equals("id") && value instanceof Long){ entranceID = (Long) value;}
+            else if(key.equals("dir") && value instanceof String){ entranceDir = (String) value;}
+        }else if(scope == IN_LOOT && path.size() == 4){
+            if(path.get(3).equals("id") && value instanceof Long){ lootID = (Long) value;}
+        }
+        return true;
+    }
+
+    /**
+     * Creates the room that was just read and records its entrances and loot.
+     * @throws IOException if the descriptions of the room cannot be stored
+     */
+    private void finishRoom() throws IOException{
+        Room newRoom = new Room(new JSONObject(fields));
+        if(descriptions != null){
+            descriptions.store(newRoom);
+        }
+        adventure.addRoom(newRoom);
+        for(int i = 0; i < entranceIDs.size(); i++){
+            newRoom.addEntrance(entranceIDs.get(i), entranceDirs.get(i));
+        }
+        for(Integer id : lootIDs){
+            newRoom.addLootID(id);
+        }
+        if(fields.containsKey("start")){
+            adventure.setCurrentRoom(newRoom);
+        }
+    }
+
+    /**
+     * Checks if the keys leading to the current token are exactly the ones given.
+     * @param keys expected object keys from the top of the file down
+     * @return true if the current path matches, false if not
+     */
+    private boolean isAt(String... keys){
+        if(path.size() != keys.length){
+            return false;
+        }
+        for(int i = 0; i < keys.length; i++){
+            if(!keys[i].equals(path.get(i))){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Records a load error and stops the parser.
+     * @param message description of the error
+     * @return false, so the parser stops
+     */
+    private boolean fail(String message){
+        if(error == null){
+            error = message;
+        }
+        return false;
+    }
+
+    /**
+     * Gets the loader details.
+     * @return a string describing the loader
+     */
+    public String toString(){
+        String str = "Streaming adventure loader\n";
+        return str;
+    }
+}
@@ -0,0 +1,135 @@
+package adventure;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Checks a loaded adventure for logic errors. Every room is visited once and every
+ * entrance and loot ID is resolved through the adventure's registry, so a full check
+ * is linear in the size of the adventure. All violations are reported, not just the first.
+ */
+public class AdventureValidator{
+    private static final int ROOMS_PER_TASK = 2048;
+
+    /**
+     * Checks every room in an adventure.
+     * @param adventure the adventure to be checked
+     * @return every violation found, in room order, empty if the adventure is valid
+     */
+    public List<Violation> validate(Adventure adventure){
+        List<Violation> violations = new ArrayList<Violation>();
+        for(Room room : adventure.listAllRooms()){
+            validateRoom(room, adventure.getRegistry(), violations);
+        }
+        return violations;
+    }
+
+    /**
+     * Checks every room in an adventure, splitting the rooms across a pool of threads.
+     * Each room is checked independently, and the reports of each part are joined in
+     * room order, so the result is the same as {@link #validate(Adventure)}.
+     * @param adventure the adventure to be checked
+     * @param threads number of threads to check rooms on
+     * @return every violation found, in room order, empty if the adventure is valid
+     */
+    public List<Violation> validate(Adventure adventure, int threads){
+        if(threads <= 1 || adventure.listAllRooms().size() <= ROOMS_PER_TASK){
+            return validate(adventure);
+        }
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try{
+            return pool.invoke(new RoomRangeTask(adventure.listAllRooms(), adventure.getRegistry(),
+                                                 0, adventure.listAllRooms().size()));
+        }finally{
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Checks one room's exits and loot.
+     * @param room the room to be checked
+     * @param registry ID index of all rooms and items in the adventure
+     * @param violations list any violations are added to
+     */
+    public void validateRoom(Room room, WorldRegistry registry, List<Violation> violations){
+        ArrayList<Integer> entranceIDs = room.getEntranceIDList();
+        ArrayList<String> entranceDirs = room.getEntranceDirList();
+        if(entranceIDs.size() == 0){
+            violations.add(new Violation(room.getID(), null, 0, Violation.Rule.NO_EXITS));
+        }
+        for(int i = 0; i < entranceIDs.size(); i++){
+            int entranceID = entranceIDs.get(i);
+            String dir = entranceDirs.get(i);
+            Direction direction = Direction.fromKey(dir);
+            if(direction == null){
+                violations.add(new Violation(room.getID(), dir, entranceID, Violation.Rule.BAD_EXIT_SYNTAX));
+            }else if(!registry.hasRoom(entranceID)){
+                violations.add(new Violation(room.getID(), dir, entranceID, Violation.Rule.DANGLING_ENTRANCE));
+            }else{
+                Room conRoom = registry.getRoom(entranceID);
+                if(conRoom.getConnectedRoom(direction.opposite()) != room){
+                    violations.add(new Violation(room.getID(), dir, entranceID, Violation.Rule.NON_RECIPROCAL_EXIT));
+                }
+            }
+        }
+        for(Integer lootID : room.getLootIDList()){
+            if(!registry.hasItem(lootID)){
+                violations.add(new Violation(room.getID(), null, lootID, Violation.Rule.DANGLING_LOOT));
+            }
+        }
+    }
+
+    /**
+     * Checks a range of rooms, splitting it in half until the ranges are small enough.
+     */
+    private class RoomRangeTask extends RecursiveTask<List<Violation>>{
+        private static final long serialVersionUID = 1L;
+        private final List<Room> rooms;
+        private final WorldRegistry registry;
+        private final int start;
+        private final int end;
+
+        /**
+         * Creates a task for the rooms from start up to but not including end.
+         * @param roomList all rooms in the adventure
+         * @param index ID index of all rooms and items in the adventure
+         * @param from index of the first room to check
+         * @param to index after the last room to check
+         */
+        RoomRangeTask(List<Room> roomList, WorldRegistry index, int from, int to){
+            rooms = roomList;
+            registry = index;
+            start = from;
+            end = to;
+        }
+
+        @Override
+        protected List<Violation> compute(){
+            if(end - start <= ROOMS_PER_TASK){
+                List<Violation> violations = new ArrayList<Violation>();
+                for(int i = start; i < end; i++){
+                    validateRoom(rooms.get(i), registry, violations);
+                }
+                return violations;
+            }
+            int middle = (start + end) >>> 1;
+            RoomRangeTask left = new RoomRangeTask(rooms, registry, start, middle);
+            RoomRangeTask right = new RoomRangeTask(rooms, registry, middle, end);
+            left.fork();
+            List<Violation> rightViolations = right.compute();
+            List<Violation> violations = left.join();
+            violations.addAll(rightViolations);
+            return violations;
+        }
+    }
+
+    /**
+     * Gets the validator details.
+     * @return a string describing the validator
+     */
+    public String toString(){
+        String str = "Adventure validator\n";
+        return str;
+    }
+}
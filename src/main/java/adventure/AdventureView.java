@@ -7,7 +7,6 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import javax.swing.UIManager.*;
 import javax.swing.Box.*;
-import org.json.simple.JSONObject;
 
 /**
  * This class represent the GUI the player sees
@@ -219,16 +218,7 @@ public class AdventureView extends JFrame {
 	private void loadJSON(){
 		String path = tryFilePath();
 		if(path.equals("")) return;
-		String strError = "Error in JSON file! Please choose a valid JSON "
-		+ "file or load the default adventure or save.";
-		
-		JSONObject obj = game.loadJSON(path);
-		if(obj == null){
-			JOptionPane.showMessageDialog(new JFrame(), strError, "Error: Bad JSON",
-			 JOptionPane.ERROR_MESSAGE);
-		}else{
-			loadAdventure(obj);
-		}
+		loadAdventure(path);
 	}
 
 	/**
@@ -251,8 +241,8 @@ public class AdventureView extends JFrame {
 	 * Starts the save file by welcome the user and clearing the GUI output.
 	 */
 	private void startSave(){
-		player = Game.getPlayer();
-		adventure = Game.getAdventure();
+		player = game.getSession().getPlayer();
+		adventure = game.getSession().getAdventure();
 		txtOutput.setText("");
 		String strSuccess = "Welcome back " + player.getName() + "!";
 		JOptionPane.showMessageDialog(new JFrame(), strSuccess, "Success", JOptionPane.PLAIN_MESSAGE);
@@ -261,15 +251,19 @@ public class AdventureView extends JFrame {
 	}
 
 	/**
-	 * Sets an adventure object based on the given JSONObject
-	 * @param obj JSONObject containing adventure details
+	 * Sets an adventure object based on the given adventure file
+	 * @param path path of the JSON adventure file, null for the default adventure
 	 */
-	private void loadAdventure(JSONObject obj){
+	private void loadAdventure(String path){
 		String strSuccess = "Thanks for loading an adventure! To play, enter "
 		+ "your commands in the text field.";
 		try {
-			adventure = game.generateAdventure(obj);
-			player = game.getPlayer();
+			if(path == null){
+				adventure = game.loadDefaultAdventure();
+			}else{
+				adventure = game.loadAdventure(path);
+			}
+			player = game.getSession().getPlayer();
 			JOptionPane.showMessageDialog(new JFrame(), strSuccess, "Success", JOptionPane.PLAIN_MESSAGE);
 			txtOutput.setText("");
 			startGame();
@@ -298,14 +292,7 @@ public class AdventureView extends JFrame {
 	 * Loads the default JSON adventure
 	 */
 	private void loadDefault(){
-		String strError = "Error in JSON file! Please choose a valid JSON "
-		+ "file or save.";
-		JSONObject obj = game.loadJSON(game.getInputStream());
-		if(obj == null){
-			JOptionPane.showMessageDialog(new JFrame(), strError, "Error: Bad JSON", JOptionPane.ERROR_MESSAGE);
-		}else{
-			loadAdventure(obj);
-		}
+		loadAdventure(null);
 	}
 
 	/**
@@ -422,6 +409,7 @@ public class AdventureView extends JFrame {
 
 	public static void main(String[] args){
 		Game game = new Game();
+		game.makeCurrent();
 		AdventureView gui = new AdventureView(game);
 		gui.pack();
 		gui.setVisible(true);
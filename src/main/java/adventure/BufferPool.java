@@ -0,0 +1,79 @@
+package adventure;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+
+/**
+ * Hands out direct byte buffers of one size and takes them back for reuse, so a busy server
+ * doesn't allocate and free native memory for every response. Only a bounded number of
+ * returned buffers are kept; the rest are left to the garbage collector. A pool belongs to
+ * one thread.
+ */
+public class BufferPool{
+    private final int bufferSize;
+    private final int maxRetained;
+    private final ArrayDeque<ByteBuffer> free;
+    private long allocated;
+    private long reused;
+
+    /**
+     * Creates an empty pool.
+     * @param size capacity in bytes of every buffer
+     * @param retained most returned buffers kept for reuse
+     */
+    public BufferPool(int size, int retained){
+        bufferSize = size;
+        maxRetained = retained;
+        free = new ArrayDeque<ByteBuffer>();
+    }
+
+    /**
+     * Gets an empty buffer, reusing a returned one if there is one.
+     * @return a cleared direct buffer
+     */
+    public ByteBuffer acquire(){
+        ByteBuffer buffer = free.pollFirst();
+        if(buffer == null){
+            allocated++;
+            return ByteBuffer.allocateDirect(bufferSize);
+        }
+        reused++;
+        buffer.clear();
+        return buffer;
+    }
+
+    /**
+     * Returns a buffer to the pool. It must not be used again by the caller.
+     * @param buffer a buffer from acquire
+     */
+    public void release(ByteBuffer buffer){
+        if(free.size() < maxRetained){
+            free.addFirst(buffer);
+        }
+    }
+
+    /**
+     * Gets the capacity of the pool's buffers.
+     * @return buffer size in bytes
+     */
+    public int getBufferSize(){
+        return bufferSize;
+    }
+
+    /**
+     * Gets the number of buffers waiting to be reused.
+     * @return number of free buffers
+     */
+    public int freeCount(){
+        return free.size();
+    }
+
+    /**
+     * Gets the pool details.
+     * @return a string containing the buffer size and how often buffers were allocated and reused
+     */
+    public String toString(){
+        String str = "Buffer pool of " + bufferSize + " byte buffers: " + allocated + " allocated, " + reused
+                     + " reused, " + free.size() + " free\n";
+        return str;
+    }
+}
@@ -9,7 +9,28 @@ public class Command {
     public static final String[] COMMANDS_ONE_WORD = {"look", "help", "inventory", "q", "quit", "items"};
     public static final String[] COMMANDS_TWO_WORDS = {"go", "look","take", "eat", 
     "wear", "toss", "read"};
-    private Adventure adv;
+    private Session session;
+    private VerbHandler verb;
+    private String line;
+    private int actionEnd;
+    private String problemItem;
+
+    /**
+     * The reasons a command can be rejected.
+     */
+    public enum Problem{
+        NO_COMMAND,
+        UNKNOWN_COMMAND,
+        MISSING_DIRECTION,
+        MISSING_ROOM_ITEM,
+        MISSING_INVENTORY_ITEM,
+        UNKNOWN_TWO_WORD_COMMAND,
+        NOT_IN_ROOM,
+        BLOCKED_DIRECTION,
+        BAD_DIRECTION,
+        NOT_IN_INVENTORY,
+        CANNOT_USE
+    }
 
   /**
      * Create a command object with default values.  
@@ -33,7 +54,8 @@ public class Command {
     }
 
     /**
-     * Create a command object given both an action and a noun.
+     * Create a command object given both an action and a noun. The command acts on the
+     * console or GUI game until a parser gives it a session of its own.
      *
      * @param command The first word of the command. 
      * @param what      The second word of the command.
@@ -42,20 +64,104 @@ public class Command {
     public Command(String command, String what) throws InvalidCommandException{
         action = command;
         noun = what;
-        adv = Game.getAdventure();
+        session = Game.getCurrentSession();
+        verb = command == null ? null : VerbRegistry.lookupBuiltIn(command);
+    }
+
+    /**
+     * Creates an empty command that a parser fills in again for every line with reset.
+     * @param owner the session the command is checked and carried out in
+     */
+    Command(Session owner){
+        session = owner;
+    }
+
+    /**
+     * Reuses this command for a new line the player typed. The first word must already have
+     * been looked up, so nothing is copied from the line unless the command is invalid.
+     * @param userLine the whole line the player typed
+     * @param verbEnd index of the end of the first word in the line
+     * @param typedVerb the verb the first word names, null if it isn't one
+     * @param what the second word of the command, null if there is none
+     */
+    void reset(String userLine, int verbEnd, VerbHandler typedVerb, String what){
+        line = userLine;
+        actionEnd = verbEnd;
+        verb = typedVerb;
+        action = typedVerb == null ? null : typedVerb.getWord();
+        noun = what;
+        problemItem = null;
+    }
+
+    /**
+     * Gets the session the command was typed in.
+     * @return the session whose adventure and player the command acts on
+     */
+    public Session getSession(){
+        return session;
+    }
+
+    /**
+     * Sets the session the command was typed in.
+     * @param owner the session whose adventure and player the command acts on
+     */
+    void setSession(Session owner){
+        session = owner;
     }
 
     /**
      * Checks if whole command is valid
      */
     public void checkOverallValidity() throws InvalidCommandException{
-        if(action == null){
-            throw new InvalidCommandException("You must enter a command!");
+        ValidationResult result = validate();
+        if(!result.isValid()){
+            action = null;
+            noun = null;
+            throw new InvalidCommandException(result);
+        }
+    }
+
+    /**
+     * Checks if whole command is valid without throwing.
+     * @return the shared valid result, or a result carrying why the command was rejected
+     */
+    public ValidationResult validate(){
+        Problem problem = findProblem();
+        if(problem == null){
+            return ValidationResult.VALID;
+        }
+        String typed = line == null ? action : line.substring(0, actionEnd);
+        return new ValidationResult(problem, typed, verb, noun, problemItem);
+    }
+
+    /**
+     * Checks if whole command is valid without throwing, so rejected input costs no more
+     * than accepted input.
+     * @return the reason the command is invalid, null if it is valid
+     */
+    public Problem findProblem(){
+        if(verb == null && action == null && line == null){
+            return Problem.NO_COMMAND;
         }else if(noun == null){
-            validateCommandOneWord(action);
-        }else{
-            validateCommandTwoWords(action, noun);
+            return findOneWordProblem();
         }
+        return findTwoWordProblem();
+    }
+
+    /**
+     * Gets the verb of this command.
+     * @return the handler for the verb, null if the first word isn't one
+     */
+    public VerbHandler getVerb(){
+        return verb;
+    }
+
+    /**
+     * Sets the verb of this command, for parsers that look verbs up in their own registry.
+     * @param handler the handler for the first word, null if it isn't a verb
+     */
+    void setVerb(VerbHandler handler){
+        verb = handler;
     }
 
     /**
@@ -103,30 +209,11 @@ public class Command {
      * @throws InvalidCommandException if the command is not valid
      */
     public void validateCommandOneWord(String command) throws InvalidCommandException{
-        action = null;
-        if(isValidCommand(COMMANDS_ONE_WORD, command)){
-            action = command;
-        }else if(isValidCommand(COMMANDS_TWO_WORDS, command)){
-            invalidOneWord(command);
-        }else{
-            throw new InvalidCommandException("Sorry, I don't recognize '" + command + "'."
-            + " Type 'help' if you need the instructions.\n");
-        }
-    }
-
-    /**
-     * Throws different exceptions based on why the command is invalid.
-     * @param command invalid command
-     * @throws InvalidCommandException with feedback as to why the command is invalid
-     */
-    private void invalidOneWord(String command) throws InvalidCommandException{
-        if(command.equalsIgnoreCase("go")){
-            throw new InvalidCommandException("You must enter a direction after 'go'.\n");
-        }else if(command.equalsIgnoreCase("take")){
-            throw new InvalidCommandException("You must enter an item in the room after 'take'.\n");
-        }else{
-            throw new InvalidCommandException("You must enter an item in your inventory after '" + command + "'.\n");
-        }
+        line = null;
+        action = command;
+        noun = null;
+        verb = VerbRegistry.lookupBuiltIn(command);
+        checkOverallValidity();
     }
 
     /**
@@ -136,163 +223,45 @@ public class Command {
      * @throws InvalidCommandException if the command is not valid
      */
     public void validateCommandTwoWords(String command, String what) throws InvalidCommandException{
-        action = null;
-        noun = null;
-        if(isValidCommand(COMMANDS_TWO_WORDS, command)){
-            if(validateSpecificTwoWordCommand(command, what)){
-                action = command;
-                noun = what;
-            }
-        }else{
-            throw new InvalidCommandException("Sorry, I don't recognize '" + command + "\n");
-        }
-    }
-
-    /**
-     * Calls the appropriate method to deal with command and returns validity
-     * @param command first word of command
-     * @param what second work of command
-     * @return true if valid command, false if not
-     * @throws InvalidCommandException if command is invalid
-     */
-    private boolean validateSpecificTwoWordCommand(String command, String what) throws InvalidCommandException{
-        boolean result = false;
-
-        if(command.equalsIgnoreCase("look")){ result = validateLook(what);}
-        else if (command.equalsIgnoreCase("take")){ result = validateTake(what);}
-        else if (command.equalsIgnoreCase("go")){ result = validateGo(what);}
-        else if (command.equalsIgnoreCase("eat")){ result = validateEat(what);}
-        else if (command.equalsIgnoreCase("wear")){ result = validateWear(what);}
-        else if (command.equalsIgnoreCase("toss")){ result = validateToss(what);}
-        else if (command.equalsIgnoreCase("read")){ result = validateRead(what);}
-
-        return result;
-    }
-
-    /**
-     * Validates look command
-     * @param what the second word of the command
-     * @return true if valid
-     * @throws InvalidCommandException if command is invalid
-     */
-    private boolean validateLook(String what) throws InvalidCommandException{
-        for(Item item : adv.getCurrentRoom().listItems()){
-            if(what.equalsIgnoreCase(item.getName())){
-                return true;
-            }
-        }
-        throw new InvalidCommandException(what + " is not an item in the room."
-        + " Type 'items' for a list of items in the room.\n");
-    }
-
-    /**
-     * Validates take command
-     * @param what the second word of the command
-     * @return true if valid
-     * @throws InvalidCommandException if command is invalid
-     */
-    private boolean validateTake(String what) throws InvalidCommandException{
-        for(Item item : adv.getCurrentRoom().listItems()){
-            if(what.equalsIgnoreCase(item.getName())){
-                return true;
-            }
-        }
-        throw new InvalidCommandException(what + " is not an item in the room."
-        + " Type 'items' for a list of items in the room.\n");
-    }
-
-    /**
-     * Validates go command
-     * @param what the second word of the command
-     * @return true if valid
-     * @throws InvalidCommandException if command is invalid
-     */
-    private boolean validateGo(String what) throws InvalidCommandException{
-        if(adv.getCurrentRoom().getConnectedRoom(what) != null){
-            return true;
-        }
-        if(what.matches("(?i)North|East|South|West|N|E|S|W|Up|Down")){
-            throw new InvalidCommandException("You cannot go " + what + ".\n");
-        }else{
-            throw new InvalidCommandException(what + " is not a valid direction.\n");
-        }
+        line = null;
+        action = command;
+        noun = what;
+        verb = VerbRegistry.lookupBuiltIn(command);
+        checkOverallValidity();
     }
 
     /**
-     * Validates eat command
-     * @param what the second word of the command
-     * @return true if valid
-     * @throws InvalidCommandException if command is invalid
+     * Finds why a one word command is invalid.
+     * @return the reason the command is invalid, null if it is valid
      */
-    private boolean validateEat(String what) throws InvalidCommandException{
-        for(Item item : Game.getPlayer().getInventory()){
-            if(what.equalsIgnoreCase(item.getName())){
-                if(!(item instanceof Food || item instanceof SmallFood)){
-                    throw new InvalidCommandException("You can't eat the " + item.getName() + "!\n");
-                }
-                return true;
-            }
+    private Problem findOneWordProblem(){
+        if(verb == null){
+            return Problem.UNKNOWN_COMMAND;
+        }else if(verb.isOneWord()){
+            return null;
         }
-        throw new InvalidCommandException(what + " is not an item in your inventory."
-        + " Type 'inventory' for a list of items in your inventory.\n");
+        return verb.getMissingNounProblem();
     }
 
     /**
-     * Validates wear command
-     * @param what the second word of the command
-     * @return true if valid
-     * @throws InvalidCommandException if command is invalid
+     * Finds why a two word command is invalid, letting the verb look at the room and inventory.
+     * @return the reason the command is invalid, null if it is valid
      */
-    private boolean validateWear(String what) throws InvalidCommandException{
-        for(Item item : Game.getPlayer().getInventory()){
-            if(what.equalsIgnoreCase(item.getName())){
-                if(!(item instanceof Clothing || item instanceof BrandedClothing)){
-                    throw new InvalidCommandException("You can't wear the " + item.getName() + "!\n");
-                }
-                return true;
-            }
+    private Problem findTwoWordProblem(){
+        if(verb == null || !verb.isTwoWord()){
+            return Problem.UNKNOWN_TWO_WORD_COMMAND;
         }
-        throw new InvalidCommandException(what + " is not an item in your inventory."
-        + " Type 'inventory' for a list of items in your inventory.\n");
+        return verb.check(this, session.getAdventure(), session.getPlayer());
     }
 
     /**
-     * Validates toss command
-     * @param what the second word of the command
-     * @return true if valid
-     * @throws InvalidCommandException if command is invalid
+     * Records the item a verb couldn't be used on, for the message telling the player why.
+     * @param itemName name of the item
      */
-    private boolean validateToss(String what) throws InvalidCommandException{
-        for(Item item : Game.getPlayer().getInventory()){
-            if(what.equalsIgnoreCase(item.getName())){
-                if(!(item instanceof SmallFood || item instanceof Weapon)){
-                    throw new InvalidCommandException("You can't toss the " + item.getName() + "!\n");
-                }
-                return true;
-            }
-        }
-        throw new InvalidCommandException(what + " is not an item in your inventory."
-        + " Type 'inventory' for a list of items in your inventory.\n");
+    void setProblemItem(String itemName){
+        problemItem = itemName;
     }
 
-    /**
-     * Validates read command
-     * @param what the second word of the command
-     * @return true if valid
-     * @throws InvalidCommandException if command is invalid
-     */
-    private boolean validateRead(String what) throws InvalidCommandException{
-        for(Item item : Game.getPlayer().getInventory()){
-            if(what.equalsIgnoreCase(item.getName())){
-                if(!(item instanceof BrandedClothing || item instanceof Spell)){
-                    throw new InvalidCommandException("You can't read the " + item.getName() + "!\n");
-                }
-                return true;
-            }
-        }
-        throw new InvalidCommandException(what + " is not an item in your inventory."
-        + " Type 'inventory' for a list of items in your inventory.\n");
-    }
     /**
      * Evaluates whether or not the user's command is valid according to COMMANDS array.
      * @param commandsList list of valid commands
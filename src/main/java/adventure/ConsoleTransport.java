@@ -0,0 +1,113 @@
+package adventure;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+
+/**
+ * Reads commands from and writes responses to the console through buffers. Output is only
+ * flushed when the game is about to wait for the next line, so a player sees every prompt,
+ * while a batch of piped commands is played back-to-back without flushing after each one.
+ */
+public class ConsoleTransport implements AutoCloseable{
+    public static final int BUFFER_SIZE = 8192;
+    private BufferedReader in;
+    private PrintWriter out;
+
+    /**
+     * Creates a transport for the standard input and output streams.
+     */
+    public ConsoleTransport(){
+        this(System.in, System.out);
+    }
+
+    /**
+     * Creates a transport for a pair of streams.
+     * @param input stream commands are read from
+     * @param output stream responses are written to
+     */
+    public ConsoleTransport(InputStream input, OutputStream output){
+        in = new BufferedReader(new InputStreamReader(input), BUFFER_SIZE);
+        out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(output), BUFFER_SIZE), false);
+    }
+
+    /**
+     * Reads the next line, flushing the output first unless the next line has already arrived.
+     * @return the line without its line terminator, null if the input has ended
+     */
+    public String readLine(){
+        try {
+            if(!in.ready()){
+                out.flush();
+            }
+            return in.readLine();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Writes text without ending the line.
+     * @param text the text to be written
+     */
+    public void print(CharSequence text){
+        out.append(text);
+    }
+
+    /**
+     * Writes text and ends the line.
+     * @param text the text to be written
+     */
+    public void println(CharSequence text){
+        out.append(text);
+        out.println();
+    }
+
+    /**
+     * Ends the line.
+     */
+    public void println(){
+        out.println();
+    }
+
+    /**
+     * Writes the prompt shown while the game waits for the player.
+     */
+    public void prompt(){
+        out.print("> ");
+    }
+
+    /**
+     * Writes everything buffered so far to the output stream.
+     */
+    public void flush(){
+        out.flush();
+    }
+
+    /**
+     * Flushes the output and closes the input. The output stream is left open, since it is
+     * usually standard output.
+     */
+    @Override
+    public void close(){
+        out.flush();
+        try {
+            in.close();
+        } catch (IOException e) {
+            return;
+        }
+    }
+
+    /**
+     * Gets the transport details.
+     * @return a string containing the buffer size
+     */
+    public String toString(){
+        String str = "Console transport with " + BUFFER_SIZE + " character buffers\n";
+        return str;
+    }
+}
@@ -0,0 +1,196 @@
+package adventure;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps room and item descriptions in a side file instead of on the heap. Only the offset
+ * and length of each description are held in memory; the text is read back when a room or
+ * item is looked at, and the most recently read descriptions are kept in a small cache.
+ */
+public class DescriptionStore implements TextStore, AutoCloseable{
+    public static final int DEFAULT_CACHE_SIZE = 256;
+    private static final int WRITE_BUFFER_BYTES = 64 * 1024;
+
+    private Path file;
+    private FileChannel channel;
+    private ByteBuffer pending;
+    private long written;
+    private long[] offsets;
+    private int[] lengths;
+    private int count;
+    private LinkedHashMap<Integer, String> cache;
+    private int hits;
+    private int misses;
+
+    /**
+     * Creates a store backed by a new temporary file that is deleted when the store is closed.
+     * @param cacheSize most descriptions kept in memory at once
+     * @throws IOException if the side file cannot be created
+     */
+    public DescriptionStore(int cacheSize) throws IOException{
+        file = Files.createTempFile("adventure", ".text");
+        file.toFile().deleteOnExit();
+        channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        pending = ByteBuffer.allocate(WRITE_BUFFER_BYTES);
+        offsets = new long[64];
+        lengths = new int[64];
+        final int limit = Math.max(1, cacheSize);
+        cache = new LinkedHashMap<Integer, String>(limit * 2, 0.75f, true){
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, String> eldest){
+                return size() > limit;
+            }
+        };
+    }
+
+    /**
+     * Moves a description into the store.
+     * @param text the description to be stored, may be null
+     * @return reference to give to getText, -1 for a null description
+     * @throws IOException if the side file cannot be written
+     */
+    public synchronized int add(String text) throws IOException{
+        if(text == null){
+            return -1;
+        }
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        if(count == offsets.length){
+            offsets = Arrays.copyOf(offsets, count * 2);
+            lengths = Arrays.copyOf(lengths, count * 2);
+        }
+        offsets[count] = written + pending.position();
+        lengths[count] = bytes.length;
+        if(bytes.length > pending.remaining()){
+            flush();
+        }
+        if(bytes.length > pending.capacity()){
+            writeFully(ByteBuffer.wrap(bytes));
+        }else{
+            pending.put(bytes);
+        }
+        return count++;
+    }
+
+    /**
+     * Moves the descriptions of a room into the store.
+     * @param room the room whose descriptions are moved
+     * @throws IOException if the side file cannot be written
+     */
+    public void store(Room room) throws IOException{
+        int shortRef = add(room.getShortDescription());
+        int longRef = add(room.getLongDescription());
+        room.setLazyDescriptions(this, shortRef, longRef);
+    }
+
+    /**
+     * Moves the description of an item into the store.
+     * @param item the item whose description is moved
+     * @throws IOException if the side file cannot be written
+     */
+    public void store(Item item) throws IOException{
+        item.setLazyDesc(this, add(item.getLongDescription()));
+    }
+
+    /**
+     * Gets a description, reading it from the side file if it isn't cached.
+     * @param ref reference returned by add
+     * @return the description, null if the reference is -1
+     */
+    @Override
+    public synchronized String getText(int ref){
+        if(ref < 0){
+            return null;
+        }
+        String text = cache.get(ref);
+        if(text != null){
+            hits++;
+            return text;
+        }
+        misses++;
+        try {
+            if(offsets[ref] + lengths[ref] > written){
+                flush();
+            }
+            ByteBuffer bytes = ByteBuffer.allocate(lengths[ref]);
+            long position = offsets[ref];
+            while(bytes.hasRemaining()){
+                if(channel.read(bytes, position + bytes.position()) < 0){
+                    throw new IOException("Description store " + file + " is truncated.");
+                }
+            }
+            text = new String(bytes.array(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        cache.put(ref, text);
+        return text;
+    }
+
+    /**
+     * Gets the number of descriptions in the store.
+     * @return number of stored descriptions
+     */
+    public synchronized int size(){
+        return count;
+    }
+
+    /**
+     * Gets the number of descriptions currently held in memory.
+     * @return number of cached descriptions
+     */
+    public synchronized int cachedCount(){
+        return cache.size();
+    }
+
+    /**
+     * Closes the side file and deletes it.
+     * @throws IOException if the file cannot be closed or deleted
+     */
+    @Override
+    public synchronized void close() throws IOException{
+        channel.close();
+        Files.deleteIfExists(file);
+    }
+
+    /**
+     * Writes any buffered descriptions to the side file.
+     * @throws IOException if the side file cannot be written
+     */
+    private void flush() throws IOException{
+        pending.flip();
+        writeFully(pending);
+        pending.clear();
+    }
+
+    /**
+     * Writes the whole of a buffer at the end of the side file.
+     * @param bytes the buffer to be written
+     * @throws IOException if the side file cannot be written
+     */
+    private void writeFully(ByteBuffer bytes) throws IOException{
+        while(bytes.hasRemaining()){
+            written += channel.write(bytes, written);
+        }
+    }
+
+    /**
+     * Gets the store details.
+     * @return a string containing the number of stored and cached descriptions and the cache hit rate
+     */
+    public synchronized String toString(){
+        String str = "Description store with " + count + " descriptions, " + cache.size() + " cached, "
+                     + hits + " hits and " + misses + " misses\n";
+        return str;
+    }
+}
@@ -0,0 +1,68 @@
+package adventure;
+
+/**
+ * The directions a room can have exits in. Each direction knows its opposite and the words
+ * a player or adventure file may use for it, so looking one up never allocates.
+ */
+public enum Direction{
+    N("NORTH"),
+    E("EAST"),
+    S("SOUTH"),
+    W("WEST"),
+    UP("UP"),
+    DOWN("DOWN");
+
+    private static final Direction[] ALL = values();
+    private static final Direction[] OPPOSITES = {S, W, N, E, DOWN, UP};
+    private final String alias;
+
+    /**
+     * Creates a direction.
+     * @param word full word for the direction
+     */
+    Direction(String word){
+        alias = word;
+    }
+
+    /**
+     * Gets the direction on the other side of an exit in this direction.
+     * @return the opposite direction
+     */
+    public Direction opposite(){
+        return OPPOSITES[ordinal()];
+    }
+
+    /**
+     * Gets the direction written as an exit in an adventure file: N, E, S, W, UP or DOWN in any case.
+     * @param key the exit direction
+     * @return the matching direction, null if key isn't one
+     */
+    public static Direction fromKey(String key){
+        if(key == null){
+            return null;
+        }
+        for(Direction dir : ALL){
+            if(dir.name().equalsIgnoreCase(key)){
+                return dir;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets the direction a player typed, either as an exit key or as the full compass word.
+     * @param word the direction in any case, such as "n", "North" or "up"
+     * @return the matching direction, null if word isn't one
+     */
+    public static Direction parse(String word){
+        if(word == null){
+            return null;
+        }
+        for(Direction dir : ALL){
+            if(dir.name().equalsIgnoreCase(word) || dir.alias.equalsIgnoreCase(word)){
+                return dir;
+            }
+        }
+        return null;
+    }
+}
@@ -1,6 +1,9 @@
 package adventure;
-import java.util.Scanner;
+import java.util.ArrayList;
+import java.io.File;
 import java.io.Reader;
+import java.io.IOException;
+import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.InputStream;
 import java.io.InputStreamReader;
@@ -15,29 +18,37 @@ import org.json.simple.parser.JSONParser;
  * This is the class that runs the game and handles user input.
  */
 public class Game{
-    private Scanner sc;
+    public static final String DEFAULT_SOURCE = "default";
+    private ConsoleTransport console;
     private final String defaultFilename = "adventure.json";
     private JSONObject jsonAdventure;
-    private static Adventure adventure;
+    private static Session currentSession;
+    private Session session;
     private Parser parser;
-    private static Player player;
+    private int validationThreads;
+    private String journalPath;
+    private int descriptionCache;
+    private String loadSummary;
+    private boolean showStatistics;
+    private GameJournal journal;
+    private DescriptionStore descriptions;
 
     /**
      * Default constructor for Game class. Initializes member variable.
      */
     public Game(){
-        parser = new Parser();
-        player = null;
-        sc = new Scanner(System.in);
+        session = new Session(null, null);
+        parser = session.getParser();
+        console = new ConsoleTransport();
         jsonAdventure = null;
-        adventure = null;
+        validationThreads = 1;
     }
 
     /**
-     * @param scanner scanner object to be set
+     * @param transport console the game reads commands from and writes responses to
      */
-    public void setSc(Scanner scanner){
-        sc = scanner;
+    public void setConsole(ConsoleTransport transport){
+        console = transport;
     }
 
     /**
@@ -56,19 +67,28 @@ public class Game{
 
     public static void main(String[] args){
         Game theGame = new Game();
+        theGame.makeCurrent();
 
         // 1. Print a welcome message to the user
         theGame.loadFileOrSave(args);
         // 4. Print the beginning of the adventure
         // 5. Begin game loop here
         
-        while(theGame.sc.hasNext()){
-            String toPrint = adventure.parseCommand(theGame.getUserCommand());
-            if(toPrint == null){theGame.confirmQuit();}
-            else{System.out.print(toPrint);}
-            System.out.println();
-            System.out.print("> ");   
+        StringBuilder toPrint = new StringBuilder();
+        Command cmd = theGame.getUserCommand();
+        while(cmd != null){
+            toPrint.setLength(0);
+            if(!theGame.session.getAdventure().parseCommand(cmd, toPrint)){theGame.confirmQuit();}
+            else{
+                theGame.console.print(toPrint);
+                theGame.journalCommand(cmd);
+            }
+            theGame.console.println();
+            theGame.console.prompt();
+            cmd = theGame.getUserCommand();
         }
+        theGame.closeDescriptions();
+        theGame.console.close();
     }
 
     /**
@@ -101,7 +121,7 @@ public class Game{
         try (InputStreamReader reader = new InputStreamReader(inputStream)){
             jsonAdv = (JSONObject) myParser.parse(reader);
         } catch (Exception e) {
-            System.out.println("Error: " + e);
+            report("Error: " + e);
         }
 
         return jsonAdv;
@@ -116,30 +136,108 @@ public class Game{
         Adventure adv = null;
         try {
             JSONObject jsonAdv = (JSONObject) obj.get("adventure");
-            player = new Player();
+            session.setPlayer(new Player());
             adv = new Adventure(jsonAdv); 
         } catch (Exception e) {
             throw e;
         }
-        adventure = adv;
+        closeDescriptions();
+        session.setAdventure(adv);
         return adv;
     }
 
+    /**
+     * Creates and returns new adventure by streaming it from an adventure JSON reader.
+     * @param reader reader containing the adventure .json
+     * @return the Adventure object that will be used for the game
+     * @throws Exception if the JSON cannot be parsed or the adventure has logic errors
+     */
+    public Adventure generateAdventure(Reader reader) throws Exception{
+        session.setPlayer(new Player());
+        AdventureLoader loader = new AdventureLoader();
+        loader.setValidationThreads(validationThreads);
+        DescriptionStore store = null;
+        if(descriptionCache > 0){
+            store = new DescriptionStore(descriptionCache);
+            loader.setDescriptionStore(store);
+        }
+        Adventure adventure;
+        try {
+            adventure = loader.load(reader);
+        } catch (Exception e) {
+            if(store != null){
+                store.close();
+            }
+            throw e;
+        }
+        closeDescriptions();
+        descriptions = store;
+        session.setAdventure(adventure);
+        loadSummary = "Loaded " + adventure.listAllRooms().size() + " rooms and "
+                      + adventure.listAllItems().size() + " items. " + loader.getStringPool();
+        return adventure;
+    }
+
+    /**
+     * Gets a summary of the last adventure streamed from JSON.
+     * @return string with the number of rooms and items loaded and the memory saved by sharing strings
+     */
+    public String getLoadSummary(){
+        return loadSummary;
+    }
+
+    /**
+     * Streams an adventure from a .json file.
+     * @param filename the relative filepath of the .json adventure file
+     * @return the Adventure object that will be used for the game
+     * @throws Exception if the file cannot be read or the adventure has logic errors
+     */
+    public Adventure loadAdventure(String filename) throws Exception{
+        try (Reader reader = new BufferedReader(new FileReader(filename))){
+            generateAdventure(reader);
+        }
+        session.getAdventure().setSource(new File(filename).getAbsolutePath());
+        return session.getAdventure();
+    }
+
+    /**
+     * Streams the default adventure that is packaged with the game.
+     * @return the Adventure object that will be used for the game
+     * @throws Exception if the default adventure cannot be read
+     */
+    public Adventure loadDefaultAdventure() throws Exception{
+        loadAdventure(getInputStream());
+        session.getAdventure().setSource(DEFAULT_SOURCE);
+        return session.getAdventure();
+    }
+
+    /**
+     * Streams an adventure from an input stream.
+     * @param inputStream the input stream containing the adventure .json
+     * @return the Adventure object that will be used for the game
+     * @throws Exception if the stream cannot be read or the adventure has logic errors
+     */
+    public Adventure loadAdventure(InputStream inputStream) throws Exception{
+        try (Reader reader = new BufferedReader(new InputStreamReader(inputStream))){
+            return generateAdventure(reader);
+        }
+    }
+
     /**
      * Prints the selected room name, short description, and items in the room.
      * @param room the room to print info about
      */
     public void printNewRoom(Room room){
-        System.out.println("You are in " + room.getName());
-        System.out.println(room.getShortDescription());
-        System.out.println("Items:");
-        if(room.listItems().size() == 0){System.out.println("There are no items in this room.");}
+        console.println("You are in " + room.getName());
+        console.println(room.getShortDescription());
+        console.println("Items:");
+        if(room.listItems().size() == 0){console.println("There are no items in this room.");}
         else{
             for(Item item : room.listItems()){
-                System.out.println(item.getName());
+                console.println(item.getName());
             }
         }  
-        System.out.println();
+        console.println();
     }
 
 
@@ -157,27 +255,179 @@ public class Game{
      * @param args command line arguments
      */
     public void loadFileOrSave(String[] args){
+        args = readOptionFlags(args);
         try {
-            if(args.length > 1){
+            if(journalPath != null && GameJournal.hasSession(journalPath)){
+                recoverSession();
+            }else if(args.length > 1){
                 if(args[0].equals("-a")){
-                    adventure = generateAdventure(loadJSON(args[1]));
+                    loadAdventure(args[1]);
+                    printLoadSummary();
                 }else if(args[0].equals("-l")){
                     loadSave(args[1]);
                 }else{
-                    System.out.println("Command line error. Loading default adventure...\n");
-                    adventure = generateAdventure(loadJSON(getInputStream()));
+                    console.println("Command line error. Loading default adventure...\n");
+                    loadDefaultAdventure();
                 }
             }else{
-                System.out.println("Loading default adventure...\n");
-                adventure = generateAdventure(loadJSON(getInputStream()));
+                console.println("Loading default adventure...\n");
+                loadDefaultAdventure();
+                printLoadSummary();
             }
             gameStart();
         } catch (Exception e) {
-            System.out.println("Error: JSON file cannot be parsed.");
+            console.println("Error: JSON file cannot be parsed.");
+            console.close();
             System.exit(1);
         }
     }
 
+    /**
+     * Reads the option flags that can be given alongside -a or -l, and returns the remaining arguments.
+     * -p [threads] validates the adventure on several threads (all cores if no count is given).
+     * -j path autosaves every command to a journal at path, and recovers the session from it after a crash.
+     * -d [cache size] keeps descriptions in a side file and only the most recently read ones in memory.
+     * -v prints how many rooms and items were loaded and how many strings were shared.
+     * @param args command line arguments
+     * @return the command line arguments without the option flags
+     */
+    private String[] readOptionFlags(String[] args){
+        ArrayList<String> rest = new ArrayList<String>();
+        for(int i = 0; i < args.length; i++){
+            if(args[i].equals("-p")){
+                validationThreads = Runtime.getRuntime().availableProcessors();
+                if(i + 1 < args.length && args[i + 1].matches("\\d+")){
+                    validationThreads = Math.max(1, Integer.parseInt(args[++i]));
+                }
+            }else if(args[i].equals("-d")){
+                descriptionCache = DescriptionStore.DEFAULT_CACHE_SIZE;
+                if(i + 1 < args.length && args[i + 1].matches("\\d+")){
+                    descriptionCache = Math.max(1, Integer.parseInt(args[++i]));
+                }
+            }else if(args[i].equals("-v")){
+                showStatistics = true;
+            }else if(args[i].equals("-j") && i + 1 < args.length){
+                journalPath = args[++i];
+            }else{
+                rest.add(args[i]);
+            }
+        }
+        return rest.toArray(new String[0]);
+    }
+
+    /**
+     * Prints the load statistics, if they were asked for with -v.
+     */
+    private void printLoadSummary(){
+        if(showStatistics){
+            console.println(getLoadSummary());
+        }
+    }
+
+    /**
+     * Loads the snapshot an autosaved session left behind and replays its journal.
+     * @throws Exception if the session cannot be recovered
+     */
+    private void recoverSession() throws Exception{
+        console.println("Recovering your last session...\n");
+        journal = new GameJournal(journalPath, GameJournal.DEFAULT_SNAPSHOT_INTERVAL);
+        int replayed = journal.recover(this);
+        console.println("Replayed " + replayed + " commands since the last autosave.\n");
+    }
+
+    /**
+     * Starts autosaving if a journal path was given and autosave isn't already running.
+     */
+    private void startJournal(){
+        if(journalPath == null || journal != null){
+            return;
+        }
+        try {
+            journal = new GameJournal(journalPath, GameJournal.DEFAULT_SNAPSHOT_INTERVAL);
+            journal.start(session.getAdventure(), session.getPlayer());
+        } catch (Exception e) {
+            report("Warning: autosave is not available for this game.");
+            journal = null;
+        }
+    }
+
+    /**
+     * Appends an accepted command to the autosave journal, if autosave is running.
+     * @param cmd the command that was just carried out
+     */
+    public void journalCommand(Command cmd){
+        if(journal == null){
+            return;
+        }
+        String text = cmd.getActionWord();
+        if(cmd.hasSecondWord()){
+            text += " " + cmd.getNoun();
+        }
+        try {
+            journal.record(text, session.getAdventure(), session.getPlayer());
+        } catch (Exception e) {
+            report("Warning: autosave failed, your progress is no longer being saved.");
+            journal = null;
+        }
+    }
+
+    /**
+     * Stops autosaving and removes the autosave files, after the player quits normally.
+     */
+    private void endJournal(){
+        if(journal == null){
+            return;
+        }
+        try {
+            journal.close();
+        } catch (Exception e) {
+            report("Warning: autosave files could not be removed.");
+        }
+        journal = null;
+    }
+
+    /**
+     * Closes the side file holding the current adventure's descriptions, if it has one. Called
+     * when the adventure is replaced and when the game ends.
+     */
+    private void closeDescriptions(){
+        if(descriptions == null){
+            return;
+        }
+        try {
+            descriptions.close();
+        } catch (IOException e) {
+            report("Warning: the description file could not be removed.");
+        }
+        descriptions = null;
+    }
+
+    /**
+     * Prints a message about loading, saving or autosaving straight away, since these can
+     * happen outside the command loop that flushes the console.
+     * @param message the message to be printed
+     */
+    private void report(String message){
+        console.println(message);
+        console.flush();
+    }
+
+    /**
+     * Sets how many threads adventures are validated on when they are loaded.
+     * @param threads number of validation threads
+     */
+    public void setValidationThreads(int threads){
+        validationThreads = threads;
+    }
+
+    /**
+     * Sets how many room and item descriptions are kept in memory when adventures are loaded.
+     * @param cacheSize number of cached descriptions, 0 to keep every description in memory
+     */
+    public void setDescriptionCache(int cacheSize){
+        descriptionCache = cacheSize;
+    }
+
     /**
      * Checks if the user wants to quit, and quits if they want to.
      */
@@ -185,11 +435,13 @@ public class Game{
         if(yesOrNo("Do you really want to quit? (Y/N)")){
             if(yesOrNo("Do you want to save your game? (Y/N)")){saveGame(promptForSaveName());}
             else{
-                System.out.println("Thanks for playing! Have a nice day.");
-                sc.close();
+                console.println("Thanks for playing! Have a nice day.");
+                endJournal();
+                closeDescriptions();
+                console.close();
                 System.exit(0);
             }    
-        }else{System.out.println("Ok. Thanks for not giving up on me :).");}
+        }else{console.println("Ok. Thanks for not giving up on me :).");}
     }
 
     /**
@@ -198,9 +450,12 @@ public class Game{
      */
     private String promptForSaveName(){
         String str = "";
-        System.out.println("What would you like to name your save file?");
-        System.out.print("> ");
-        str = sc.nextLine();
+        console.println("What would you like to name your save file?");
+        console.prompt();
+        str = console.readLine();
+        if(str == null){
+            str = "";
+        }
 
         return str;
     }
@@ -209,14 +464,15 @@ public class Game{
      * Prints a starting message and prints the starting room details
      */
     public void gameStart(){
-        System.out.println("Starting adventure now! Type 'help' if you need instructions.");
-        if(player.getName().equals("")){
+        console.println("Starting adventure now! Type 'help' if you need instructions.");
+        if(session.getPlayer().getName().equals("")){
             setUserName();
         }
-        player.setCurrentRoom(adventure.getCurrentRoom());
+        session.getPlayer().setCurrentRoom(session.getAdventure().getCurrentRoom());
+        startJournal();
 
-        printNewRoom(adventure.getCurrentRoom());
-        System.out.print("> ");
+        printNewRoom(session.getAdventure().getCurrentRoom());
+        console.prompt();
     }
 
 
@@ -224,10 +480,11 @@ public class Game{
      * Asks the user for their name and sets the player name accordingly.
      */
     public void setUserName(){
-        System.out.println("What's your name?");
-        System.out.print("> ");
-        player.setName(sc.nextLine());
-        System.out.println("Hey there " + player.getName() + "!\n");
+        console.println("What's your name?");
+        console.prompt();
+        String name = console.readLine();
+        session.getPlayer().setName(name == null ? "" : name);
+        console.println("Hey there " + session.getPlayer().getName() + "!\n");
     }
 
     /**
@@ -236,13 +493,12 @@ public class Game{
      * @return a valid user command.
      */
     public String commandOutput(String userCommand){
-        Command cmd = null;
-        try {
-            cmd = parser.parseUserCommand(userCommand);
-        } catch (InvalidCommandException e) {
-            return e.getMessage();
+        Command cmd = parser.parse(userCommand);
+        ValidationResult result = cmd.validate();
+        if(!result.isValid()){
+            return result.getMessage();
         }
-        return adventure.parseCommand(cmd);
+        return session.getAdventure().parseCommand(cmd);
     }
 
     /**
@@ -251,13 +507,44 @@ public class Game{
      * @return true if succesful false if not
      */
     public boolean loadSave(String filename){
+        if(GameSave.isGameSave(filename)){
+            return loadGameSave(filename);
+        }else if(MappedSnapshot.isSnapshot(filename)){
+            return loadSnapshot(filename);
+        }
         try (ObjectInputStream in = new ObjectInputStream(new FileInputStream(filename))){ 
-            adventure = (Adventure)in.readObject();
-            player = (Player)in.readObject();
-            System.out.println("Game state successfully loaded.");
-            System.out.println("Welcome back to your game, " + player.getName() + ".");
+            Adventure adventure = (Adventure)in.readObject();
+            closeDescriptions();
+            session.setAdventure(adventure);
+            session.setPlayer((Player)in.readObject());
+            report("Game state successfully loaded.");
+            report("Welcome back to your game, " + session.getPlayer().getName() + ".");
+        } catch(Exception e) { 
+            report("Error: Couldn't open file.");
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Loads a binary save by reloading its source adventure and applying the saved changes.
+     * @param filename string containing filepath of saved game state.
+     * @return true if succesful false if not
+     */
+    private boolean loadGameSave(String filename){
+        try {
+            GameSave save = GameSave.read(filename);
+            if(save.getSource().equals(DEFAULT_SOURCE)){
+                loadDefaultAdventure();
+            }else{
+                loadAdventure(save.getSource());
+            }
+            save.apply(session.getAdventure(), session.getPlayer());
+            report("Game state successfully loaded.");
+            report("Welcome back to your game, " + session.getPlayer().getName() + ".");
         } catch(Exception e) { 
-            System.out.println("Error: Couldn't open file.");
+            report("Error: Couldn't open file.");
             return false;
         }
 
@@ -265,20 +552,61 @@ public class Game{
     }
 
     /**
-     * Serializes the game state if the user requests.
+     * Resumes a memory-mapped snapshot.
+     * @param filename string containing filepath of the snapshot.
+     * @return true if succesful false if not
+     */
+    private boolean loadSnapshot(String filename){
+        try {
+            Player player = new Player();
+            Adventure adventure = MappedSnapshot.resume(filename, player);
+            closeDescriptions();
+            session.setAdventure(adventure);
+            session.setPlayer(player);
+            report("Game state successfully loaded.");
+            report("Welcome back to your game, " + session.getPlayer().getName() + ".");
+        } catch(Exception e) { 
+            report("Error: Couldn't open file.");
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Saves the game state if the user requests. Filenames ending in .snap are saved as a
+     * memory-mapped snapshot that resumes without parsing. Otherwise adventures with a known source
+     * are saved as a binary save of what has changed, and others are serialized in full.
      * @param filename the filename to name the file
      * @return true if success, false if not
      */
     public boolean saveGame(String filename){
-        player.setSaveGameName(filename);
-        try(FileOutputStream fileStream = new FileOutputStream(player.getSaveGameName());
+        session.getPlayer().setSaveGameName(filename);
+        if(filename.endsWith(MappedSnapshot.EXTENSION)){
+            try {
+                MappedSnapshot.write(filename, session.getAdventure(), session.getPlayer());
+            } catch (Exception e) {
+                report("Error: Game state cannot be saved.");
+                return false;
+            }
+            return true;
+        }else if(session.getAdventure().getSource() != null){
+            try {
+                GameSave.capture(session.getAdventure(), session.getPlayer()).write(filename);
+            } catch (Exception e) {
+                report("Error: Game state cannot be saved.");
+                return false;
+            }
+            return true;
+        }
+        try(FileOutputStream fileStream = new FileOutputStream(session.getPlayer().getSaveGameName());
             ObjectOutputStream outputStream = new ObjectOutputStream(fileStream)){
 
-            outputStream.writeObject(adventure); 
-            outputStream.writeObject(player);
+            outputStream.writeObject(session.getAdventure()); 
+            outputStream.writeObject(session.getPlayer());
             
         } catch (Exception e) {
-            System.out.println("Error: Game state cannot be saved.");
+            report("Error: Game state cannot be saved.");
             return false;
         }
         return true;
@@ -286,22 +614,25 @@ public class Game{
 
     /**
      * Keep asking for a command from user until its a valid command.
-     * @return a valid user command.
+     * @return a valid user command, null if the input has ended.
      */
     public Command getUserCommand(){
         boolean isGoodCommand = false;
         Command cmd = null;
         String ans = null;
         while(!isGoodCommand){
-            ans = sc.nextLine().trim();
-            try {
-                cmd = parser.parseUserCommand(ans);
-                isGoodCommand = true;
-            } catch (InvalidCommandException e) {
-                System.out.println(e.getMessage());
-                isGoodCommand = false;
-                System.out.println();
-                System.out.print("> ");
+            ans = console.readLine();
+            if(ans == null){
+                return null;
+            }
+            ans = ans.trim();
+            cmd = parser.parse(ans);
+            ValidationResult result = cmd.validate();
+            isGoodCommand = result.isValid();
+            if(!isGoodCommand){
+                console.println(result.getMessage());
+                console.println();
+                console.prompt();
             }
         }
         return cmd;
@@ -311,15 +642,19 @@ public class Game{
     /**
      * Keeps asking user for a yes or no to a given prompt and returns answer.
      * @param prompt string containing prompt for the user to answer
-     * @return true if yes, false if no
+     * @return true if yes, false if no or if the input has ended
      */
     public boolean yesOrNo(String prompt){
         boolean isAnswer = false;
         String ans = null;
         while(!isAnswer){
-            System.out.println(prompt + "\n");
-            System.out.print("> ");
-            ans = sc.nextLine().trim();
+            console.println(prompt + "\n");
+            console.prompt();
+            ans = console.readLine();
+            if(ans == null){
+                return false;
+            }
+            ans = ans.trim();
             if(ans.equalsIgnoreCase("N") || ans.equalsIgnoreCase("no")){
                 isAnswer = true;
                 return false;
@@ -327,26 +662,51 @@ public class Game{
                 isAnswer = true;
                 return true;
             }else{
-                System.out.println("Oops! Please enter Y/N.\n");
+                console.println("Oops! Please enter Y/N.\n");
             }
         }
         return false;
     }
 
     /**
-     * Gets the player object in use.
-     * @return player object being used by game
+     * Makes this the game that code written when a JVM could only run one game works on.
+     * Only the console and GUI entry points do this; other games keep to their own session.
+     */
+    void makeCurrent(){
+        currentSession = session;
+    }
+
+    /**
+     * Gets the player object in use by the console or GUI game.
+     * @return player object being used by game, null if neither has started
      */
     public static Player getPlayer(){
-        return player;
+        return currentSession == null ? null : currentSession.getPlayer();
     }
 
     /**
-     * Gets the adventure object in use.
-     * @return adventure object being used by game.
+     * Gets the adventure object in use by the console or GUI game.
+     * @return adventure object being used by game, null if neither has started
      */
     public static Adventure getAdventure(){
-        return adventure;
+        return currentSession == null ? null : currentSession.getAdventure();
+    }
+
+    /**
+     * Gets the session of the game started by the console or GUI entry point, for code
+     * written when a JVM could only run one game. Use a game's own session where there is one.
+     * @return session of the console or GUI game, null if neither has started
+     */
+    public static Session getCurrentSession(){
+        return currentSession;
+    }
+
+    /**
+     * Gets the session holding this game's adventure and player.
+     * @return the game's session
+     */
+    public Session getSession(){
+        return session;
     }
 
     /**
@@ -355,7 +715,7 @@ public class Game{
      */
     public String toString(){
         String str = "This is the game object. It holds the adventure: " 
-        + getAdventure().toString() + "and the player: " + getPlayer().toString() + "\n";
+        + session.getAdventure().toString() + "and the player: " + session.getPlayer().toString() + "\n";
 
         return str;
     }
@@ -0,0 +1,244 @@
+package adventure;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.zip.CRC32;
+
+/**
+ * An autosave made of a snapshot and an append-only journal. The snapshot is a compact
+ * GameSave of the game at some point, or a MappedSnapshot if the adventure has no source
+ * file to reload; every command accepted after that is appended to the journal together
+ * with its effects, so each move costs one small write. Every few commands a new
+ * snapshot is taken and the journal is emptied. If the game crashes, the snapshot is loaded
+ * and the journal replayed to get back to the last command.
+ */
+public class GameJournal{
+    public static final int DEFAULT_SNAPSHOT_INTERVAL = 50;
+    private static final String SNAPSHOT_EXTENSION = ".snapshot";
+    private static final String JOURNAL_EXTENSION = ".journal";
+    private static final int HEADER_BYTES = 2 * Integer.BYTES;
+
+    private Path snapshotPath;
+    private Path journalPath;
+    private int snapshotInterval;
+    private int sinceSnapshot;
+    private FileChannel channel;
+    private ByteBuffer buffer;
+    private CRC32 crc;
+
+    /**
+     * Creates a journal kept in two files next to the given base path.
+     * @param basePath path the snapshot and journal file names are based on
+     * @param interval number of journaled commands between snapshots
+     */
+    public GameJournal(String basePath, int interval){
+        snapshotPath = Paths.get(basePath + SNAPSHOT_EXTENSION);
+        journalPath = Paths.get(basePath + JOURNAL_EXTENSION);
+        snapshotInterval = interval;
+        buffer = ByteBuffer.allocate(256);
+        crc = new CRC32();
+    }
+
+    /**
+     * Checks if an earlier session left a snapshot behind that can be recovered.
+     * @param basePath path the snapshot and journal file names are based on
+     * @return true if there is a session to recover, false if not
+     */
+    public static boolean hasSession(String basePath){
+        return new File(basePath + SNAPSHOT_EXTENSION).exists();
+    }
+
+    /**
+     * Starts journaling a game by taking a first snapshot of it.
+     * @param adventure the adventure being played
+     * @param player the player playing the adventure
+     * @throws IOException if the snapshot or journal cannot be written
+     */
+    public void start(Adventure adventure, Player player) throws IOException{
+        snapshot(adventure, player);
+    }
+
+    /**
+     * Appends an accepted command and its effects to the journal.
+     * @param command the command text as it would be typed
+     * @param adventure the adventure after the command ran
+     * @param player the player after the command ran
+     * @throws IOException if the journal cannot be written
+     */
+    public void record(String command, Adventure adventure, Player player) throws IOException{
+        byte[] text = command.getBytes(StandardCharsets.UTF_8);
+        int payload = Integer.BYTES + text.length + 2 * Integer.BYTES;
+        if(buffer.capacity() < HEADER_BYTES + payload){
+            buffer = ByteBuffer.allocate(HEADER_BYTES + payload);
+        }
+        buffer.clear();
+        buffer.position(HEADER_BYTES);
+        buffer.putInt(text.length);
+        buffer.put(text);
+        buffer.putInt(adventure.getCurrentRoom().getID());
+        buffer.putInt(player.getInventory().size());
+        crc.reset();
+        crc.update(buffer.array(), HEADER_BYTES, payload);
+        buffer.putInt(0, payload);
+        buffer.putInt(Integer.BYTES, (int) crc.getValue());
+        buffer.flip();
+        while(buffer.hasRemaining()){
+            channel.write(buffer);
+        }
+        channel.force(false);
+
+        sinceSnapshot++;
+        if(sinceSnapshot >= snapshotInterval){
+            snapshot(adventure, player);
+        }
+    }
+
+    /**
+     * Writes a new snapshot and empties the journal. Adventures with a known source are
+     * snapshotted as a GameSave of what has changed, which stays a few hundred bytes however
+     * big the world is; others get a full MappedSnapshot. Either way the snapshot is written
+     * to a temporary file first and moved into place, so a crash never leaves a half-written
+     * snapshot.
+     * @param adventure the adventure being played
+     * @param player the player playing the adventure
+     * @throws IOException if the snapshot or journal cannot be written
+     */
+    public void snapshot(Adventure adventure, Player player) throws IOException{
+        if(adventure.getSource() != null){
+            Path temp = Paths.get(snapshotPath + ".tmp");
+            GameSave.capture(adventure, player).write(temp.toString());
+            Files.move(temp, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }else{
+            MappedSnapshot.write(snapshotPath.toString(), adventure, player);
+        }
+        if(channel != null){
+            channel.close();
+        }
+        channel = FileChannel.open(journalPath, StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+                                   StandardOpenOption.TRUNCATE_EXISTING);
+        sinceSnapshot = 0;
+    }
+
+    /**
+     * Restores a crashed session: loads the last snapshot into the game and replays every
+     * complete journal entry through it. Replay stops at a torn or corrupt entry, or at an
+     * entry whose effects don't match what replaying it did. In that case the snapshot is
+     * loaded again and only the entries before it are replayed, so the mismatched entry's
+     * effects are never kept, and the journal is cut back to the last matching entry.
+     * @param game the game to restore the session into
+     * @return number of commands replayed
+     * @throws IOException if the snapshot cannot be loaded or the journal cannot be read
+     */
+    public int recover(Game game) throws IOException{
+        ArrayList<String> commands = new ArrayList<String>();
+        ArrayList<int[]> effects = new ArrayList<int[]>();
+        ArrayList<Long> ends = new ArrayList<Long>();
+        readEntries(commands, effects, ends);
+
+        loadSnapshot(game);
+        int replayed = replay(game, commands, effects, commands.size());
+        if(replayed < commands.size()){
+            loadSnapshot(game);
+            replay(game, commands, effects, replayed);
+        }
+
+        long keptLength = replayed == 0 ? 0 : ends.get(replayed - 1);
+        channel = FileChannel.open(journalPath, StandardOpenOption.WRITE, StandardOpenOption.CREATE);
+        channel.truncate(keptLength);
+        channel.position(keptLength);
+        sinceSnapshot = replayed;
+        return replayed;
+    }
+
+    /**
+     * Loads the last snapshot into a game.
+     * @param game the game to load the snapshot into
+     * @throws IOException if the snapshot cannot be loaded
+     */
+    private void loadSnapshot(Game game) throws IOException{
+        if(!game.loadSave(snapshotPath.toString())){
+            throw new IOException("Autosave snapshot " + snapshotPath + " cannot be loaded.");
+        }
+    }
+
+    /**
+     * Replays journal entries through a game until one doesn't have the effects it recorded.
+     * @param game the game the entries are replayed through
+     * @param commands the command texts of the entries
+     * @param effects the recorded room ID and inventory size of each entry
+     * @param count most entries to replay
+     * @return number of entries replayed with matching effects
+     */
+    private int replay(Game game, ArrayList<String> commands, ArrayList<int[]> effects, int count){
+        for(int i = 0; i < count; i++){
+            game.commandOutput(commands.get(i));
+            int[] expected = effects.get(i);
+            if(game.getSession().getAdventure().getCurrentRoom().getID() != expected[0]
+               || game.getSession().getPlayer().getInventory().size() != expected[1]){
+                return i;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Reads every complete, uncorrupted entry from the journal file.
+     * @param commands list the command texts are added to
+     * @param effects list the recorded room ID and inventory size of each command are added to
+     * @param ends list the journal offset just past each entry is added to
+     * @throws IOException if the journal cannot be read
+     */
+    private void readEntries(ArrayList<String> commands, ArrayList<int[]> effects, ArrayList<Long> ends) throws IOException{
+        if(!Files.exists(journalPath)){
+            return;
+        }
+        ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(journalPath));
+        while(data.remaining() >= HEADER_BYTES){
+            int payload = data.getInt();
+            int checksum = data.getInt();
+            if(payload < 3 * Integer.BYTES || payload > data.remaining()){
+                break;
+            }
+            crc.reset();
+            crc.update(data.array(), data.position(), payload);
+            if((int) crc.getValue() != checksum){
+                break;
+            }
+            byte[] text = new byte[data.getInt()];
+            data.get(text);
+            commands.add(new String(text, StandardCharsets.UTF_8));
+            effects.add(new int[]{data.getInt(), data.getInt()});
+            ends.add((long) data.position());
+        }
+    }
+
+    /**
+     * Ends the session cleanly, deleting the snapshot and journal.
+     * @throws IOException if the files cannot be deleted
+     */
+    public void close() throws IOException{
+        if(channel != null){
+            channel.close();
+            channel = null;
+        }
+        Files.deleteIfExists(journalPath);
+        Files.deleteIfExists(snapshotPath);
+    }
+
+    /**
+     * Gets the journal details.
+     * @return a string containing the journal file and commands since the last snapshot
+     */
+    public String toString(){
+        String str = "Journal " + journalPath + " with " + sinceSnapshot + " commands since the last snapshot\n";
+        return str;
+    }
+}
@@ -0,0 +1,434 @@
+package adventure;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A compact binary save. Instead of the whole adventure, it records where the adventure
+ * was loaded from and only the state that has changed since it was loaded: the player,
+ * the contents of rooms whose items changed, the inventory, eaten items and equipped items.
+ * Loading a save reloads the source adventure and applies the changes on top of it.
+ */
+public class GameSave{
+    public static final int MAGIC = 0x53414456;
+    public static final short VERSION = 1;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private String source;
+    private int roomCount;
+    private int itemCount;
+    private String playerName;
+    private String saveGameName;
+    private int currentRoomID;
+    private int[] inventoryIDs;
+    private int[] consumedIDs;
+    private int[] equippedIDs;
+    private int[] changedRoomIDs;
+    private int[][] changedRoomContents;
+
+    /**
+     * Default constructor. Creates an empty save.
+     */
+    public GameSave(){
+        inventoryIDs = new int[0];
+        consumedIDs = new int[0];
+        equippedIDs = new int[0];
+        changedRoomIDs = new int[0];
+        changedRoomContents = new int[0][];
+    }
+
+    /**
+     * Records the changes a player has made to an adventure since it was loaded.
+     * @param adventure the adventure being played, which must know its source
+     * @param player the player playing the adventure
+     * @return the save holding the changes
+     */
+    public static GameSave capture(Adventure adventure, Player player){
+        GameSave save = new GameSave();
+        WorldRegistry registry = adventure.getRegistry();
+        save.source = adventure.getSource();
+        save.roomCount = registry.roomCount();
+        save.itemCount = registry.itemCount();
+        save.playerName = player.getName();
+        save.saveGameName = player.getSaveGameName();
+        save.currentRoomID = adventure.getCurrentRoom().getID();
+        save.inventoryIDs = idsOf(player.getInventory());
+
+        ArrayList<Integer> equipped = new ArrayList<Integer>();
+        IntMap<Item> remaining = new IntMap<Item>(adventure.listAllItems().size());
+        for(Item item : adventure.listAllItems()){
+            remaining.put(item.getID(), item);
+        }
+        ArrayList<Integer> changedIDs = new ArrayList<Integer>();
+        ArrayList<int[]> changedContents = new ArrayList<int[]>();
+        for(Room room : adventure.listAllRooms()){
+            if(hasChanged(room, registry)){
+                changedIDs.add(room.getID());
+                changedContents.add(idsOf(room.listItems()));
+            }
+            for(Item item : room.listItems()){
+                if(item.isEquipped()){ equipped.add(item.getID());}
+            }
+        }
+        for(Item item : player.getInventory()){
+            if(item.isEquipped()){ equipped.add(item.getID());}
+        }
+
+        ArrayList<Integer> consumed = new ArrayList<Integer>();
+        for(Room room : adventure.listAllRooms()){
+            for(Integer lootID : room.getLootIDList()){
+                if(registry.hasItem(lootID) && !remaining.containsKey(lootID)){
+                    consumed.add(lootID);
+                }
+            }
+        }
+
+        save.equippedIDs = toArray(equipped);
+        save.consumedIDs = toArray(consumed);
+        save.changedRoomIDs = toArray(changedIDs);
+        save.changedRoomContents = changedContents.toArray(new int[0][]);
+        return save;
+    }
+
+    /**
+     * Checks if the items in a room differ from the loot the room started with.
+     * @param room the room to check
+     * @param registry ID index of all items in the adventure
+     * @return true if the room's items have changed, false if not
+     */
+    private static boolean hasChanged(Room room, WorldRegistry registry){
+        int index = 0;
+        for(Integer lootID : room.getLootIDList()){
+            if(!registry.hasItem(lootID)){
+                continue;
+            }
+            if(index >= room.listItems().size() || room.listItems().get(index).getID() != lootID){
+                return true;
+            }
+            index++;
+        }
+        return index != room.listItems().size();
+    }
+
+    /**
+     * Applies the saved changes to a freshly loaded copy of the source adventure.
+     * @param adventure the adventure loaded from this save's source
+     * @param player the new player for the adventure
+     * @throws IOException if the adventure does not match the one the save was made from
+     */
+    public void apply(Adventure adventure, Player player) throws IOException{
+        WorldRegistry registry = adventure.getRegistry();
+        if(registry.roomCount() != roomCount || registry.itemCount() != itemCount){
+            throw new IOException("Adventure " + source + " has changed since the game was saved.");
+        }
+        for(int i = 0; i < changedRoomIDs.length; i++){
+            Room room = requireRoom(registry, changedRoomIDs[i]);
+            room.setItemsInRoom(new ArrayList<Item>());
+            for(int id : changedRoomContents[i]){
+                Item item = requireItem(registry, id);
+                room.addItem(item);
+                item.setContainingRoom(room);
+            }
+        }
+        for(int id : inventoryIDs){
+            Item item = requireItem(registry, id);
+            player.addItem(item);
+            item.setContainingRoom(null);
+        }
+        for(int id : consumedIDs){
+            Item item = requireItem(registry, id);
+            adventure.removeItem(item);
+            item.setContainingRoom(null);
+        }
+        for(int id : equippedIDs){
+            Item item = requireItem(registry, id);
+            item.setItemName(item.getName() + " (Equipped)");
+            item.setEquipped(true);
+        }
+        player.setName(playerName);
+        player.setSaveGameName(saveGameName);
+        adventure.setCurrentRoom(requireRoom(registry, currentRoomID));
+        player.setCurrentRoom(adventure.getCurrentRoom());
+    }
+
+    /**
+     * Writes the save to a file through a buffered channel.
+     * @param filename path of the save file
+     * @throws IOException if the file cannot be written
+     */
+    public void write(String filename) throws IOException{
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.WRITE,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)){
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            buffer.putInt(MAGIC);
+            buffer.putShort(VERSION);
+            buffer = putString(channel, buffer, source);
+            buffer = putInt(channel, buffer, roomCount);
+            buffer = putInt(channel, buffer, itemCount);
+            buffer = putString(channel, buffer, playerName);
+            buffer = putString(channel, buffer, saveGameName);
+            buffer = putInt(channel, buffer, currentRoomID);
+            buffer = putInts(channel, buffer, inventoryIDs);
+            buffer = putInts(channel, buffer, consumedIDs);
+            buffer = putInts(channel, buffer, equippedIDs);
+            buffer = putInt(channel, buffer, changedRoomIDs.length);
+            for(int i = 0; i < changedRoomIDs.length; i++){
+                buffer = putInt(channel, buffer, changedRoomIDs[i]);
+                buffer = putInts(channel, buffer, changedRoomContents[i]);
+            }
+            drain(channel, buffer);
+        }
+    }
+
+    /**
+     * Reads a save file.
+     * @param filename path of the save file
+     * @return the save read from the file
+     * @throws IOException if the file cannot be read or is not a save in this format
+     */
+    public static GameSave read(String filename) throws IOException{
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)){
+            buffer = ByteBuffer.allocate((int) channel.size());
+            while(buffer.hasRemaining() && channel.read(buffer) >= 0){
+                continue;
+            }
+        }
+        buffer.flip();
+        try{
+            if(buffer.getInt() != MAGIC){
+                throw new IOException(filename + " is not a save file.");
+            }
+            short version = buffer.getShort();
+            if(version != VERSION){
+                throw new IOException("Unsupported save version " + version + ".");
+            }
+            GameSave save = new GameSave();
+            save.source = getString(buffer);
+            save.roomCount = buffer.getInt();
+            save.itemCount = buffer.getInt();
+            save.playerName = getString(buffer);
+            save.saveGameName = getString(buffer);
+            save.currentRoomID = buffer.getInt();
+            save.inventoryIDs = getInts(buffer);
+            save.consumedIDs = getInts(buffer);
+            save.equippedIDs = getInts(buffer);
+            int changed = buffer.getInt();
+            save.changedRoomIDs = new int[changed];
+            save.changedRoomContents = new int[changed][];
+            for(int i = 0; i < changed; i++){
+                save.changedRoomIDs[i] = buffer.getInt();
+                save.changedRoomContents[i] = getInts(buffer);
+            }
+            return save;
+        }catch(RuntimeException e){
+            throw new IOException(filename + " is not a complete save file.", e);
+        }
+    }
+
+    /**
+     * Checks if a file starts with the marker of this save format.
+     * @param filename path of the file
+     * @return true if the file is a save in this format, false if not
+     */
+    public static boolean isGameSave(String filename){
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)){
+            ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES);
+            while(buffer.hasRemaining() && channel.read(buffer) >= 0){
+                continue;
+            }
+            buffer.flip();
+            return buffer.remaining() == Integer.BYTES && buffer.getInt() == MAGIC;
+        }catch(IOException e){
+            return false;
+        }
+    }
+
+    /**
+     * Gets where the saved adventure was loaded from.
+     * @return the adventure source
+     */
+    public String getSource(){
+        return source;
+    }
+
+    /**
+     * Gets a room by ID, failing if the adventure doesn't have it.
+     * @param registry ID index of the adventure
+     * @param id ID of the room
+     * @return the room with the ID
+     * @throws IOException if there is no room with the ID
+     */
+    private static Room requireRoom(WorldRegistry registry, int id) throws IOException{
+        Room room = registry.getRoom(id);
+        if(room == null){
+            throw new IOException("Saved room " + id + " is not in the adventure.");
+        }
+        return room;
+    }
+
+    /**
+     * Gets an item by ID, failing if the adventure doesn't have it.
+     * @param registry ID index of the adventure
+     * @param id ID of the item
+     * @return the item with the ID
+     * @throws IOException if there is no item with the ID
+     */
+    private static Item requireItem(WorldRegistry registry, int id) throws IOException{
+        Item item = registry.getItem(id);
+        if(item == null){
+            throw new IOException("Saved item " + id + " is not in the adventure.");
+        }
+        return item;
+    }
+
+    /**
+     * Gets the IDs of a list of items, in order.
+     * @param items the items
+     * @return array of item IDs
+     */
+    private static int[] idsOf(List<Item> items){
+        int[] ids = new int[items.size()];
+        for(int i = 0; i < ids.length; i++){
+            ids[i] = items.get(i).getID();
+        }
+        return ids;
+    }
+
+    /**
+     * Copies a list of IDs into an array.
+     * @param list the IDs
+     * @return array of the IDs
+     */
+    private static int[] toArray(ArrayList<Integer> list){
+        int[] array = new int[list.size()];
+        for(int i = 0; i < array.length; i++){
+            array[i] = list.get(i);
+        }
+        return array;
+    }
+
+    /**
+     * Makes room in the write buffer, writing it to the channel if it is too full.
+     * @param channel channel being written to
+     * @param buffer current write buffer
+     * @param bytes number of bytes about to be put
+     * @return a buffer with at least that many bytes remaining
+     * @throws IOException if the channel cannot be written
+     */
+    private static ByteBuffer ensure(FileChannel channel, ByteBuffer buffer, int bytes) throws IOException{
+        if(buffer.remaining() >= bytes){
+            return buffer;
+        }
+        drain(channel, buffer);
+        if(buffer.capacity() < bytes){
+            return ByteBuffer.allocate(bytes);
+        }
+        return buffer;
+    }
+
+    /**
+     * Writes everything in the buffer to the channel and empties the buffer.
+     * @param channel channel being written to
+     * @param buffer buffer holding the bytes to write
+     * @throws IOException if the channel cannot be written
+     */
+    private static void drain(FileChannel channel, ByteBuffer buffer) throws IOException{
+        buffer.flip();
+        while(buffer.hasRemaining()){
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Puts an int into the write buffer.
+     * @param channel channel being written to
+     * @param buffer current write buffer
+     * @param value the value to put
+     * @return the write buffer to use next
+     * @throws IOException if the channel cannot be written
+     */
+    private static ByteBuffer putInt(FileChannel channel, ByteBuffer buffer, int value) throws IOException{
+        ByteBuffer out = ensure(channel, buffer, Integer.BYTES);
+        out.putInt(value);
+        return out;
+    }
+
+    /**
+     * Puts a length-prefixed array of ints into the write buffer.
+     * @param channel channel being written to
+     * @param buffer current write buffer
+     * @param values the values to put
+     * @return the write buffer to use next
+     * @throws IOException if the channel cannot be written
+     */
+    private static ByteBuffer putInts(FileChannel channel, ByteBuffer buffer, int[] values) throws IOException{
+        ByteBuffer out = putInt(channel, buffer, values.length);
+        for(int value : values){
+            out = putInt(channel, out, value);
+        }
+        return out;
+    }
+
+    /**
+     * Puts a length-prefixed UTF-8 string into the write buffer. Null is written as length -1.
+     * @param channel channel being written to
+     * @param buffer current write buffer
+     * @param value the string to put
+     * @return the write buffer to use next
+     * @throws IOException if the channel cannot be written
+     */
+    private static ByteBuffer putString(FileChannel channel, ByteBuffer buffer, String value) throws IOException{
+        if(value == null){
+            return putInt(channel, buffer, -1);
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer out = ensure(channel, putInt(channel, buffer, bytes.length), bytes.length);
+        out.put(bytes);
+        return out;
+    }
+
+    /**
+     * Gets a length-prefixed array of ints from a buffer.
+     * @param buffer buffer being read
+     * @return the ints read
+     */
+    private static int[] getInts(ByteBuffer buffer){
+        int[] values = new int[buffer.getInt()];
+        for(int i = 0; i < values.length; i++){
+            values[i] = buffer.getInt();
+        }
+        return values;
+    }
+
+    /**
+     * Gets a length-prefixed UTF-8 string from a buffer.
+     * @param buffer buffer being read
+     * @return the string read, null if one was not saved
+     */
+    private static String getString(ByteBuffer buffer){
+        int length = buffer.getInt();
+        if(length < 0){
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Gets the save details.
+     * @return a string containing the source and size of the save
+     */
+    public String toString(){
+        String str = "Save of " + source + " for " + playerName + ": " + inventoryIDs.length
+        + " items in inventory, " + changedRoomIDs.length + " changed rooms\n";
+        return str;
+    }
+}
@@ -0,0 +1,416 @@
+package adventure;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Serves an adventure to many players over a line protocol on a localhost TCP port. Each
+ * connection is one session over a shared WorldTemplate and is served by its own thread: a
+ * virtual thread when the JVM has them, a pooled platform thread otherwise. The server sends
+ * the start room, then answers every line the client sends with the game's response and a
+ * "> " prompt, exactly as the console game does.
+ * Run with: java -cp ... adventure.GameServer [-a adventure.json] [-p port] [-m max sessions] [-t idle seconds] [-s]
+ * With -s every player plays in one SharedWorld and sees the others' changes.
+ */
+public class GameServer implements AutoCloseable{
+    public static final int DEFAULT_PORT = 4430;
+    public static final int DEFAULT_MAX_SESSIONS = 10000;
+    public static final int DEFAULT_IDLE_SECONDS = 300;
+    public static final int DEFAULT_DRAIN_SECONDS = 10;
+    public static final String FULL_MESSAGE = "The server is full, please try again later.\n";
+    public static final String IDLE_MESSAGE = "You have been idle too long. Goodbye.\n";
+    public static final String SHUTDOWN_MESSAGE = "The server is shutting down. Goodbye.\n";
+    private static final int BUFFER_SIZE = 4096;
+    private static final long ACCEPT_BACKOFF_MILLIS = 100;
+
+    private final WorldTemplate template;
+    private final VerbRegistry verbs;
+    private final int maxSessions;
+    private final int idleMillis;
+    private final Set<Socket> connections;
+    private final AtomicInteger activeSessions;
+    private final AtomicLong acceptedSessions;
+    private final AtomicLong rejectedSessions;
+    private final AtomicLong commandCount;
+    private final AtomicLong acceptFailures;
+    private ServerSocket serverSocket;
+    private ExecutorService workers;
+    private boolean virtualThreads;
+    private Thread acceptor;
+    private volatile boolean draining;
+
+    /**
+     * Creates a server for an adventure. Nothing is opened until start is called.
+     * @param world the template every session plays a copy-on-write view of
+     * @param max most sessions connected at once; further connections are turned away
+     * @param idleSeconds seconds a session may wait for the next line before it is closed, 0 for never
+     */
+    public GameServer(WorldTemplate world, int max, int idleSeconds){
+        template = world;
+        verbs = new VerbRegistry();
+        maxSessions = max;
+        idleMillis = idleSeconds * 1000;
+        connections = ConcurrentHashMap.newKeySet();
+        activeSessions = new AtomicInteger();
+        acceptedSessions = new AtomicLong();
+        rejectedSessions = new AtomicLong();
+        commandCount = new AtomicLong();
+        acceptFailures = new AtomicLong();
+    }
+
+    /**
+     * Opens the port on the loopback address and starts accepting players.
+     * @param port port to listen on, 0 for any free port
+     * @return the port being listened on
+     * @throws IOException if the port cannot be opened
+     */
+    public int start(int port) throws IOException{
+        serverSocket = new ServerSocket();
+        serverSocket.setReuseAddress(true);
+        serverSocket.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 1024);
+        workers = newWorkers();
+        acceptor = new Thread(this::acceptLoop, "adventure-acceptor");
+        acceptor.start();
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Creates the executor that runs one task per connection, using virtual threads when the
+     * running JVM provides them. They are looked up reflectively so the game still builds
+     * and runs on Java 11.
+     * @return an executor that starts a new thread for every task
+     */
+    private ExecutorService newWorkers(){
+        try {
+            ExecutorService virtual = (ExecutorService) Executors.class
+                .getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            virtualThreads = true;
+            return virtual;
+        } catch (ReflectiveOperationException e) {
+            virtualThreads = false;
+            return Executors.newCachedThreadPool(task -> {
+                Thread thread = new Thread(task, "adventure-session");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Accepts connections until the server socket is closed, handing each one to a worker or
+     * turning it away if the server is full. If accepting fails while the socket is still
+     * open, for example because the process is out of file descriptors, the failure is
+     * counted and accepting is tried again after a short pause.
+     */
+    private void acceptLoop(){
+        while(!serverSocket.isClosed()){
+            Socket socket;
+            try {
+                socket = serverSocket.accept();
+            } catch (IOException e) {
+                if(serverSocket.isClosed()){
+                    return;
+                }
+                acceptFailures.incrementAndGet();
+                try {
+                    Thread.sleep(ACCEPT_BACKOFF_MILLIS);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+                continue;
+            }
+            if(activeSessions.incrementAndGet() > maxSessions){
+                activeSessions.decrementAndGet();
+                rejectedSessions.incrementAndGet();
+                refuse(socket);
+                continue;
+            }
+            acceptedSessions.incrementAndGet();
+            connections.add(socket);
+            workers.execute(() -> serve(socket));
+        }
+    }
+
+    /**
+     * Tells a client the server is full and closes its connection.
+     * @param socket the connection being turned away
+     */
+    private void refuse(Socket socket){
+        try (Socket closing = socket){
+            closing.getOutputStream().write(FULL_MESSAGE.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            return;
+        }
+    }
+
+    /**
+     * Plays one session over a connection until the client quits, disconnects, goes idle or
+     * the server drains.
+     * @param socket the client's connection
+     */
+    private void serve(Socket socket){
+        try (Socket open = socket){
+            open.setSoTimeout(idleMillis);
+            open.setTcpNoDelay(true);
+            BufferedReader in = new BufferedReader(new InputStreamReader(open.getInputStream(), StandardCharsets.UTF_8), BUFFER_SIZE);
+            Writer out = new BufferedWriter(new OutputStreamWriter(open.getOutputStream(), StandardCharsets.UTF_8), BUFFER_SIZE);
+            Session session = template.newSession(verbs);
+            StringBuilder response = new StringBuilder();
+            Adventure adventure = session.getAdventure();
+            out.write(adventure.newRoomString(adventure.getCurrentRoom()));
+            out.write("\n> ");
+            out.flush();
+            play(session, in, out, response);
+        } catch (IOException e) {
+            return;
+        } finally {
+            connections.remove(socket);
+            activeSessions.decrementAndGet();
+        }
+    }
+
+    /**
+     * Answers the lines a client sends, flushing only when no further line is waiting.
+     * @param session the client's session
+     * @param in reader for the client's lines
+     * @param out writer for the responses
+     * @param response buffer reused for every response
+     * @throws IOException if the connection fails
+     */
+    private void play(Session session, BufferedReader in, Writer out, StringBuilder response) throws IOException{
+        while(!draining){
+            String line;
+            try {
+                line = in.readLine();
+            } catch (SocketTimeoutException e) {
+                out.write(IDLE_MESSAGE);
+                out.flush();
+                return;
+            }
+            if(line == null){
+                break;
+            }
+            response.setLength(0);
+            boolean playing = session.respond(line.trim(), response);
+            commandCount.incrementAndGet();
+            out.append(response);
+            if(!playing){
+                out.write('\n');
+                out.flush();
+                return;
+            }
+            out.write("\n> ");
+            if(!in.ready()){
+                out.flush();
+            }
+        }
+        if(draining){
+            out.write(SHUTDOWN_MESSAGE);
+            out.flush();
+        }
+    }
+
+    /**
+     * Stops accepting players and gives the connected ones time to finish. Sessions still
+     * connected when the time is up are told the server is shutting down and disconnected.
+     * @param drainSeconds seconds to wait for connected sessions to end on their own
+     * @return true if every session ended before the time was up, false if some were cut off
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean shutdown(int drainSeconds) throws InterruptedException{
+        if(serverSocket == null){
+            return true;
+        }
+        closeQuietly(serverSocket);
+        acceptor.join();
+        workers.shutdown();
+        boolean drained = workers.awaitTermination(drainSeconds, TimeUnit.SECONDS);
+        if(!drained){
+            draining = true;
+            for(Socket socket : connections){
+                try {
+                    socket.shutdownInput();
+                } catch (IOException e) {
+                    closeQuietly(socket);
+                }
+            }
+            if(!workers.awaitTermination(1, TimeUnit.SECONDS)){
+                for(Socket socket : connections){
+                    closeQuietly(socket);
+                }
+                workers.shutdownNow();
+            }
+        }
+        return drained;
+    }
+
+    /**
+     * Closes a socket, ignoring any error since it is being thrown away.
+     * @param closing the socket to be closed
+     */
+    private static void closeQuietly(java.io.Closeable closing){
+        try {
+            closing.close();
+        } catch (IOException e) {
+            return;
+        }
+    }
+
+    /**
+     * Shuts the server down without waiting for connected sessions.
+     */
+    @Override
+    public void close(){
+        try {
+            shutdown(0);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Blocks until the server stops accepting players.
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void join() throws InterruptedException{
+        if(acceptor != null){
+            acceptor.join();
+        }
+    }
+
+    /**
+     * Gets the number of sessions connected right now.
+     * @return number of active sessions
+     */
+    public int getActiveSessions(){
+        return activeSessions.get();
+    }
+
+    /**
+     * Gets the number of sessions accepted since the server started.
+     * @return number of accepted sessions
+     */
+    public long getAcceptedSessions(){
+        return acceptedSessions.get();
+    }
+
+    /**
+     * Gets the number of connections turned away because the server was full.
+     * @return number of rejected connections
+     */
+    public long getRejectedSessions(){
+        return rejectedSessions.get();
+    }
+
+    /**
+     * Gets the number of commands answered since the server started.
+     * @return number of commands answered
+     */
+    public long getCommandCount(){
+        return commandCount.get();
+    }
+
+    /**
+     * Gets the number of times accepting a connection failed while the server was open.
+     * @return number of failed accepts
+     */
+    public long getAcceptFailures(){
+        return acceptFailures.get();
+    }
+
+    /**
+     * Checks if sessions are served by virtual threads.
+     * @return true for virtual threads, false for platform threads
+     */
+    public boolean usesVirtualThreads(){
+        return virtualThreads;
+    }
+
+    public static void main(String[] args){
+        String adventurePath = null;
+        boolean sharedWorld = false;
+        int port = DEFAULT_PORT;
+        int max = DEFAULT_MAX_SESSIONS;
+        int idle = DEFAULT_IDLE_SECONDS;
+        try {
+            for(int i = 0; i < args.length; i++){
+                if(args[i].equals("-s")){
+                    sharedWorld = true;
+                }else if(i + 1 == args.length){
+                    break;
+                }else if(args[i].equals("-a")){
+                    adventurePath = args[++i];
+                }else if(args[i].equals("-p")){
+                    port = Integer.parseInt(args[++i]);
+                }else if(args[i].equals("-m")){
+                    max = Integer.parseInt(args[++i]);
+                }else if(args[i].equals("-t")){
+                    idle = Integer.parseInt(args[++i]);
+                }
+            }
+        } catch (NumberFormatException e) {
+            System.out.println("Usage: GameServer [-a adventure.json] [-p port] [-m max sessions] [-t idle seconds] [-s]");
+            return;
+        }
+
+        GameServer server;
+        WorldTemplate world;
+        try {
+            if(sharedWorld){
+                world = adventurePath == null ? SharedWorld.loadDefault() : SharedWorld.load(adventurePath);
+            }else{
+                world = adventurePath == null ? WorldTemplate.loadDefault() : WorldTemplate.load(adventurePath);
+            }
+            server = new GameServer(world, max, idle);
+            port = server.start(port);
+        } catch (Exception e) {
+            System.out.println("Error: the server could not be started: " + e);
+            return;
+        }
+        System.out.println("Serving on localhost:" + port + " with " + (server.usesVirtualThreads() ? "virtual" : "platform")
+                           + " threads, at most " + max + " sessions");
+        final GameServer running = server;
+        final WorldTemplate played = world;
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                running.shutdown(DEFAULT_DRAIN_SECONDS);
+            } catch (InterruptedException e) {
+                return;
+            }
+            System.out.print(running);
+            System.out.print(played);
+        }));
+        try {
+            server.join();
+        } catch (InterruptedException e) {
+            return;
+        }
+    }
+
+    /**
+     * Gets the server details.
+     * @return a string containing the session and command counts
+     */
+    public String toString(){
+        String str = "Game server with " + activeSessions.get() + " active sessions, " + acceptedSessions.get()
+                     + " accepted, " + rejectedSessions.get() + " rejected and " + commandCount.get()
+                     + " commands answered\n";
+        return str;
+    }
+}
@@ -0,0 +1,156 @@
+package adventure;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.Writer;
+
+/**
+ * Plays command scripts against an adventure without a player at the keyboard. Every script
+ * starts from a freshly loaded adventure, runs each line through Game.commandOutput and writes
+ * the responses to a file. There are no prompts and no System.exit, so any number of scripts
+ * can be run in one JVM.
+ * Run with: java -cp ... adventure.HeadlessRunner [-a adventure.json] [-o output directory] script...
+ */
+public class HeadlessRunner{
+    public static final String OUTPUT_EXTENSION = ".out";
+    private Game game;
+    private String adventurePath;
+    private long commandCount;
+    private long commandNanos;
+
+    /**
+     * Creates a runner for an adventure.
+     * @param path path of the adventure .json file, null for the default adventure
+     */
+    public HeadlessRunner(String path){
+        game = new Game();
+        adventurePath = path;
+    }
+
+    /**
+     * Loads a fresh copy of the adventure and runs a script against it. The script ends at
+     * its last line or at a quit command.
+     * @param script reader with one command per line
+     * @param out writer each command and its response is written to
+     * @return number of commands run
+     * @throws Exception if the adventure cannot be loaded or the output cannot be written
+     */
+    public int run(BufferedReader script, Writer out) throws Exception{
+        Adventure adventure = adventurePath == null ? game.loadDefaultAdventure() : game.loadAdventure(adventurePath);
+        game.getSession().getPlayer().setCurrentRoom(adventure.getCurrentRoom());
+        out.write(adventure.newRoomString(adventure.getCurrentRoom()));
+        out.write('\n');
+
+        int count = 0;
+        String line = script.readLine();
+        while(line != null){
+            long start = System.nanoTime();
+            String response = game.commandOutput(line.trim());
+            commandNanos += System.nanoTime() - start;
+            count++;
+            out.write("> ");
+            out.write(line);
+            out.write('\n');
+            if(response == null){
+                break;
+            }
+            out.write(response);
+            out.write('\n');
+            line = script.readLine();
+        }
+        commandCount += count;
+        return count;
+    }
+
+    /**
+     * Runs a script file and writes the responses to an output file.
+     * @param scriptPath path of the script
+     * @param outputPath path of the output file, which is overwritten
+     * @return number of commands run
+     * @throws Exception if a file cannot be read or written, or the adventure cannot be loaded
+     */
+    public int run(String scriptPath, String outputPath) throws Exception{
+        try (BufferedReader script = new BufferedReader(new FileReader(scriptPath));
+             Writer out = new BufferedWriter(new FileWriter(outputPath))){
+            return run(script, out);
+        }
+    }
+
+    /**
+     * Gets the number of commands run by this runner so far.
+     * @return number of commands run
+     */
+    public long getCommandCount(){
+        return commandCount;
+    }
+
+    /**
+     * Gets how fast commands were run, not counting the time spent loading adventures.
+     * @return commands run per second
+     */
+    public double getCommandsPerSecond(){
+        if(commandNanos == 0){
+            return 0;
+        }
+        return commandCount * 1e9 / commandNanos;
+    }
+
+    public static void main(String[] args){
+        String adventurePath = null;
+        String outputDir = null;
+        int first = 0;
+        while(first + 1 < args.length && (args[first].equals("-a") || args[first].equals("-o"))){
+            if(args[first].equals("-a")){
+                adventurePath = args[first + 1];
+            }else{
+                outputDir = args[first + 1];
+            }
+            first += 2;
+        }
+        if(first == args.length){
+            System.out.println("Usage: HeadlessRunner [-a adventure.json] [-o output directory] script...");
+            return;
+        }
+
+        HeadlessRunner runner = new HeadlessRunner(adventurePath);
+        int scripts = 0;
+        long start = System.nanoTime();
+        for(int i = first; i < args.length; i++){
+            String outputPath = outputPath(args[i], outputDir);
+            try {
+                runner.run(args[i], outputPath);
+                scripts++;
+            } catch (Exception e) {
+                System.out.println("Error: " + args[i] + " could not be run: " + e);
+            }
+        }
+        long millis = (System.nanoTime() - start) / 1000000;
+        System.out.println(String.format("Ran %d commands from %d scripts in %d ms (%.0f commands/s)",
+                                         runner.getCommandCount(), scripts, millis, runner.getCommandsPerSecond()));
+    }
+
+    /**
+     * Gets the file a script's responses are written to.
+     * @param scriptPath path of the script
+     * @param outputDir directory output files are written to, null to write them next to the scripts
+     * @return path of the output file
+     */
+    private static String outputPath(String scriptPath, String outputDir){
+        if(outputDir == null){
+            return scriptPath + OUTPUT_EXTENSION;
+        }
+        return new File(outputDir, new File(scriptPath).getName() + OUTPUT_EXTENSION).getPath();
+    }
+
+    /**
+     * Gets the runner details.
+     * @return a string containing the adventure and the commands run so far
+     */
+    public String toString(){
+        String str = "Headless runner for " + (adventurePath == null ? "the default adventure" : adventurePath)
+                     + ": " + commandCount + " commands run\n";
+        return str;
+    }
+}
@@ -0,0 +1,204 @@
+package adventure;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Hash map keyed by primitive ints. Uses open addressing with linear probing so
+ * lookups never box the key or allocate entry objects.
+ * @param <V> type of the values stored in the map
+ */
+public class IntMap<V> implements java.io.Serializable{
+    private static final long serialVersionUID = 1L;
+    private static final int DEFAULT_CAPACITY = 16;
+    private int[] keys;
+    private Object[] values;
+    private boolean[] used;
+    private int size;
+
+    /**
+     * Default constructor. Creates an empty map with a small default capacity.
+     */
+    public IntMap(){
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates an empty map sized to hold the given number of entries without resizing.
+     * @param expectedSize number of entries the map is expected to hold
+     */
+    public IntMap(int expectedSize){
+        int capacity = DEFAULT_CAPACITY;
+        while(capacity < expectedSize * 2){
+            capacity <<= 1;
+        }
+        keys = new int[capacity];
+        values = new Object[capacity];
+        used = new boolean[capacity];
+        size = 0;
+    }
+
+    /**
+     * Gets the value stored under a key.
+     * @param key the key to look up
+     * @return the value stored under the key, null if there is none
+     */
+    @SuppressWarnings("unchecked")
+    public V get(int key){
+        int slot = findSlot(key);
+        if(used[slot]){
+            return (V) values[slot];
+        }
+        return null;
+    }
+
+    /**
+     * Checks if the map holds a value for a key.
+     * @param key the key to look up
+     * @return true if the key is in the map, false if not
+     */
+    public boolean containsKey(int key){
+        return used[findSlot(key)];
+    }
+
+    /**
+     * Stores a value under a key, replacing any previous value.
+     * @param key the key to store the value under
+     * @param value the value to be stored
+     * @return the previous value stored under the key, null if there was none
+     */
+    @SuppressWarnings("unchecked")
+    public V put(int key, V value){
+        int slot = findSlot(key);
+        if(used[slot]){
+            V old = (V) values[slot];
+            values[slot] = value;
+            return old;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        used[slot] = true;
+        size++;
+        if(size * 2 > keys.length){
+            resize(keys.length << 1);
+        }
+        return null;
+    }
+
+    /**
+     * Removes the value stored under a key.
+     * @param key the key to remove
+     * @return the value that was stored under the key, null if there was none
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(int key){
+        int slot = findSlot(key);
+        if(!used[slot]){
+            return null;
+        }
+        V old = (V) values[slot];
+        used[slot] = false;
+        values[slot] = null;
+        size--;
+        // re-insert the rest of the probe run so later lookups don't stop at the gap
+        int mask = keys.length - 1;
+        int next = (slot + 1) & mask;
+        while(used[next]){
+            int movedKey = keys[next];
+            Object movedValue = values[next];
+            used[next] = false;
+            values[next] = null;
+            int target = findSlot(movedKey);
+            keys[target] = movedKey;
+            values[target] = movedValue;
+            used[target] = true;
+            next = (next + 1) & mask;
+        }
+        return old;
+    }
+
+    /**
+     * Gets the number of entries in the map.
+     * @return number of entries in the map
+     */
+    public int size(){
+        return size;
+    }
+
+    /**
+     * Gets every value in the map, in no particular order.
+     * @return list of the values in the map
+     */
+    @SuppressWarnings("unchecked")
+    public ArrayList<V> values(){
+        ArrayList<V> list = new ArrayList<V>(size);
+        for(int i = 0; i < keys.length; i++){
+            if(used[i]){
+                list.add((V) values[i]);
+            }
+        }
+        return list;
+    }
+
+    /**
+     * Removes every entry from the map.
+     */
+    public void clear(){
+        Arrays.fill(used, false);
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    /**
+     * Finds the slot a key lives in, or the empty slot it would be put in.
+     * @param key the key to look for
+     * @return index of the slot for the key
+     */
+    private int findSlot(int key){
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        while(used[slot] && keys[slot] != key){
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Grows the backing arrays and re-inserts every entry.
+     * @param capacity new capacity, always a power of two
+     */
+    private void resize(int capacity){
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        boolean[] oldUsed = used;
+        keys = new int[capacity];
+        values = new Object[capacity];
+        used = new boolean[capacity];
+        for(int i = 0; i < oldKeys.length; i++){
+            if(oldUsed[i]){
+                int slot = findSlot(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+                used[slot] = true;
+            }
+        }
+    }
+
+    /**
+     * Spreads the bits of a key so sequential IDs don't cluster in the table.
+     * @param key the key to be mixed
+     * @return mixed hash of the key
+     */
+    private static int mix(int key){
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Gets a string describing the map.
+     * @return string containing the number of entries in the map
+     */
+    public String toString(){
+        String str = "IntMap with " + size + " entries\n";
+        return str;
+    }
+}
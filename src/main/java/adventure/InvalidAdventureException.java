@@ -0,0 +1,47 @@
+package adventure;
+import java.util.List;
+
+/**
+ * This class represents an exception for an adventure that breaks one or more rules.
+ */
+public class InvalidAdventureException extends Exception{
+    private static final long serialVersionUID = 1L;
+    private static final int MAX_LISTED = 10;
+    private final List<Violation> violations;
+
+    /**
+     * Creates the exception from every violation found in the adventure.
+     * @param found the violations found, in the order they were found
+     */
+    public InvalidAdventureException(List<Violation> found){
+        super(summarize(found));
+        violations = found;
+    }
+
+    /**
+     * Gets every violation found in the adventure.
+     * @return list of violations
+     */
+    public List<Violation> getViolations(){
+        return violations;
+    }
+
+    /**
+     * Builds the exception message from the first few violations.
+     * @param found the violations found
+     * @return the exception message
+     */
+    private static String summarize(List<Violation> found){
+        if(found.size() == 1){
+            return found.get(0).getRule().getMessage();
+        }
+        String str = "Adventure has " + found.size() + " errors:";
+        for(int i = 0; i < found.size() && i < MAX_LISTED; i++){
+            str += "\n" + found.get(i).toString();
+        }
+        if(found.size() > MAX_LISTED){
+            str += "\n...";
+        }
+        return str;
+    }
+}
@@ -4,7 +4,26 @@ package adventure;
  * This class represents an exception for an invalid command.
  */
 public class InvalidCommandException extends Exception{
+    private ValidationResult result;
+
     public InvalidCommandException(String errorMessage){
         super(errorMessage);
     }
+
+    /**
+     * Creates an exception for a command that failed validation.
+     * @param failed the result of validating the command
+     */
+    public InvalidCommandException(ValidationResult failed){
+        super(failed.getMessage());
+        result = failed;
+    }
+
+    /**
+     * Gets the validation result the exception was created from.
+     * @return the failed validation result, null if the exception was created from a message
+     */
+    public ValidationResult getResult(){
+        return result;
+    }
 }
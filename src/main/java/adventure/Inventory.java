@@ -0,0 +1,259 @@
+package adventure;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Indexes the items a player carries by name and by what can be done with them, so
+ * finding an item or listing everything edible doesn't scan the whole inventory.
+ * The items themselves stay in the player's inventory list, in the order they were picked up.
+ */
+public class Inventory{
+
+    /**
+     * The things a player can do with an item they carry.
+     */
+    public enum Capability{
+        EDIBLE(Edible.class),
+        WEARABLE(Wearable.class),
+        TOSSABLE(Tossable.class),
+        READABLE(Readable.class);
+
+        private static final Capability[] ALL = values();
+        private final Class<?> type;
+        private final int bit;
+        private final String flag;
+
+        Capability(Class<?> itemType){
+            type = itemType;
+            bit = 1 << ordinal();
+            flag = name().toLowerCase();
+        }
+
+        /**
+         * Gets the bit that stands for this capability in an item's capability set.
+         * @return the capability bit
+         */
+        public int bit(){
+            return bit;
+        }
+
+        /**
+         * Gets the key that gives an item this capability in an adventure file.
+         * @return the JSON flag, such as "edible"
+         */
+        public String getFlag(){
+            return flag;
+        }
+
+        /**
+         * Checks if a capability set has this capability.
+         * @param capabilities the capability bits
+         * @return true if this capability's bit is set, false if not
+         */
+        public boolean in(int capabilities){
+            return (capabilities & bit) != 0;
+        }
+
+        /**
+         * Checks if an item has this capability.
+         * @param item the item to be checked
+         * @return true if the item can be used this way, false if not
+         */
+        public boolean appliesTo(Item item){
+            return in(item.getCapabilities());
+        }
+
+        /**
+         * Gets the capabilities an item has because of its class.
+         * @param item the item
+         * @return the capability bits for the interfaces the item's class implements
+         */
+        static int typeMask(Item item){
+            int capabilities = 0;
+            for(Capability capability : ALL){
+                if(capability.type.isInstance(item)){
+                    capabilities |= capability.bit;
+                }
+            }
+            return capabilities;
+        }
+
+        /**
+         * Gets the capabilities flagged on an item in an adventure file.
+         * @param item the JSON item
+         * @return the capability bits for every flag the item has
+         */
+        static int flagMask(Map<?, ?> item){
+            int capabilities = 0;
+            for(Capability capability : ALL){
+                if(item.containsKey(capability.flag)){
+                    capabilities |= capability.bit;
+                }
+            }
+            return capabilities;
+        }
+    }
+
+    private ArrayList<Item> items;
+    private HashMap<String, ArrayList<Item>> byName;
+    private EnumMap<Capability, ArrayList<Item>> byCapability;
+
+    /**
+     * Creates an index over a list of items.
+     * @param list the inventory list, which this index keeps up to date from now on
+     */
+    public Inventory(ArrayList<Item> list){
+        items = list;
+        byCapability = new EnumMap<Capability, ArrayList<Item>>(Capability.class);
+        for(Capability capability : Capability.values()){
+            byCapability.put(capability, new ArrayList<Item>());
+        }
+        for(Item item : items){
+            item.setHolder(this);
+            for(Capability capability : Capability.values()){
+                if(capability.appliesTo(item)){
+                    byCapability.get(capability).add(item);
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds an item to the inventory.
+     * @param item the item to be added
+     */
+    public void add(Item item){
+        items.add(item);
+        item.setHolder(this);
+        if(byName != null){
+            indexName(item);
+        }
+        for(Capability capability : Capability.values()){
+            if(capability.appliesTo(item)){
+                byCapability.get(capability).add(item);
+            }
+        }
+    }
+
+    /**
+     * Removes an item from the inventory.
+     * @param item the item to be removed
+     * @return true if the item was in the inventory, false if not
+     */
+    public boolean remove(Item item){
+        if(!items.remove(item)){
+            return false;
+        }
+        item.setHolder(null);
+        if(byName != null){
+            String key = Room.nameKey(item.getName());
+            ArrayList<Item> matches = byName.get(key);
+            if(matches != null && matches.remove(item) && matches.isEmpty()){
+                byName.remove(key);
+            }
+        }
+        for(Capability capability : Capability.values()){
+            if(capability.appliesTo(item)){
+                byCapability.get(capability).remove(item);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Finds the item with a name, in any case. If several items share the name, the one
+     * picked up last is returned.
+     * @param name the name typed by the player
+     * @return the matching item, null if the player doesn't carry one
+     */
+    public Item find(String name){
+        if(byName == null){
+            byName = new HashMap<String, ArrayList<Item>>(Math.max(16, items.size() * 2));
+            for(Item item : items){
+                indexName(item);
+            }
+        }
+        ArrayList<Item> matches = byName.get(Room.nameKey(name));
+        if(matches == null){
+            return null;
+        }
+        return matches.get(matches.size() - 1);
+    }
+
+    /**
+     * Gets every carried item with a capability, in the order they were picked up.
+     * @param capability what the items must be usable for
+     * @return read-only view of the matching items
+     */
+    public List<Item> list(Capability capability){
+        return Collections.unmodifiableList(byCapability.get(capability));
+    }
+
+    /**
+     * Gets the number of items in the inventory.
+     * @return number of carried items
+     */
+    public int size(){
+        return items.size();
+    }
+
+    /**
+     * Tells the inventory one of its items changed name, so the name index is rebuilt.
+     * @param item the item that was renamed
+     */
+    void itemRenamed(Item item){
+        byName = null;
+    }
+
+    /**
+     * Tells the inventory one of its items changed capabilities, so the item is moved to
+     * the lists for its new capabilities. Those lists keep the order items were picked up.
+     * @param item the item whose capabilities changed
+     * @param previous the item's capability bits before the change
+     */
+    void capabilitiesChanged(Item item, int previous){
+        for(Capability capability : Capability.values()){
+            if(capability.in(previous) == capability.appliesTo(item)){
+                continue;
+            }
+            ArrayList<Item> matches = byCapability.get(capability);
+            matches.clear();
+            for(Item carried : items){
+                if(capability.appliesTo(carried)){
+                    matches.add(carried);
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds an item to the name index.
+     * @param item the item to be indexed
+     */
+    private void indexName(Item item){
+        String key = Room.nameKey(item.getName());
+        ArrayList<Item> matches = byName.get(key);
+        if(matches == null){
+            matches = new ArrayList<Item>(1);
+            byName.put(key, matches);
+        }
+        matches.add(item);
+    }
+
+    /**
+     * Gets the inventory details.
+     * @return a string containing the number of items of each capability
+     */
+    public String toString(){
+        String str = "Inventory with " + items.size() + " items";
+        for(Capability capability : Capability.values()){
+            str += ", " + byCapability.get(capability).size() + " " + capability.name().toLowerCase();
+        }
+        str += "\n";
+        return str;
+    }
+}
@@ -1,14 +1,22 @@
 package adventure;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import org.json.simple.JSONObject;
 /**
  * Represents an item in a room.
  */
-public class Item implements java.io.Serializable{
+public class Item implements java.io.Serializable, Cloneable{
     private static final long serialVersionUID = 1L;
     private String itemName;
     private int itemID;
     private String desc;
     private Room containingRoom;
+    private boolean equipped;
+    private int capabilities;
+    private transient TextStore textStore;
+    private transient int descRef;
+    private transient Inventory holder;
 
     /**
      * Default constructor for Item class. Initializes member variables.
@@ -18,6 +26,7 @@ public class Item implements java.io.Serializable{
         itemID = 0;
         desc = null;
         containingRoom = null;
+        capabilities = Inventory.Capability.typeMask(this);
     }
 
     /**
@@ -28,6 +37,7 @@ public class Item implements java.io.Serializable{
         setItemName((String) item.get("name"));
         setItemID(((Long)item.get("id")).intValue());
         setDesc((String) item.get("desc"));
+        capabilities = Inventory.Capability.typeMask(this) | Inventory.Capability.flagMask(item);
     }
 
     /**
@@ -44,6 +54,12 @@ public class Item implements java.io.Serializable{
      */
     public void setItemName(String name){
         itemName = name;
+        if(containingRoom != null){
+            containingRoom.itemRenamed(this);
+        }
+        if(holder != null){
+            holder.itemRenamed(this);
+        }
     }
 
     /**
@@ -67,9 +83,23 @@ public class Item implements java.io.Serializable{
      * @return A string that contains the description of the item
      */
     public String getLongDescription(){
+        if(desc == null && textStore != null){
+            return textStore.getText(descRef);
+        }
         return desc;
     }
 
+    /**
+     * Sets the description of the item to text that is only read from a store when it is needed.
+     * @param store the store holding the description
+     * @param ref reference of the description in the store
+     */
+    public void setLazyDesc(TextStore store, int ref){
+        textStore = store;
+        descRef = ref;
+        desc = null;
+    }
+
     /**
      * Sets the description of the item.
      * @param description A string that contains the item description
@@ -94,13 +124,142 @@ public class Item implements java.io.Serializable{
         containingRoom = room;
     }
 
+    /**
+     * Sets the inventory the item is carried in, so it can be told when the item is renamed
+     * or its capabilities change.
+     * @param inventory the inventory holding the item, null if it was dropped
+     */
+    void setHolder(Inventory inventory){
+        holder = inventory;
+    }
+
+    /**
+     * Checks if the player has put the item on.
+     * @return true if the item is equipped, false if not
+     */
+    public boolean isEquipped(){
+        return equipped;
+    }
+
+    /**
+     * Sets whether the player has put the item on.
+     * @param isEquipped true if the item is equipped
+     */
+    public void setEquipped(boolean isEquipped){
+        equipped = isEquipped;
+    }
+
+    /**
+     * Copies the item for a session that changes it, keeping its class, name, description
+     * and capabilities. The copy isn't in anyone's inventory.
+     * @return the copy of the item
+     */
+    public Item copy(){
+        try {
+            Item item = (Item) clone();
+            item.holder = null;
+            return item;
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Gets what the player can do with the item.
+     * @return the item's capability bits
+     */
+    public int getCapabilities(){
+        return capabilities;
+    }
+
+    /**
+     * Sets what the player can do with the item.
+     * @param capabilityBits the item's capability bits
+     */
+    public void setCapabilities(int capabilityBits){
+        int previous = capabilities;
+        capabilities = capabilityBits;
+        if(holder != null && previous != capabilityBits){
+            holder.capabilitiesChanged(this, previous);
+        }
+    }
+
+    /**
+     * Checks if the player can use the item in a way.
+     * @param capability the way the item would be used
+     * @return true if the item has the capability, false if not
+     */
+    public boolean can(Inventory.Capability capability){
+        return capability.in(capabilities);
+    }
+
+    /**
+     * Eats the item. Items flagged edible without being Food use this.
+     * @return string containing feedback from eating the item
+     */
+    public String eat(){
+        String str = "You ate the " + getName() + ". Yummy!\n";
+        setContainingRoom(null);
+        return str;
+    }
+
+    /**
+     * Puts the item on. Items flagged wearable without being Clothing use this.
+     * @return string containing feedback from wearing the item
+     */
+    public String wear(){
+        String str = "You put on the " + getName() + ".\n";
+        return str;
+    }
+
+    /**
+     * Tosses the item. Items flagged tossable without being SmallFood or a Weapon use this.
+     * @return string containing feedback from tossing the item
+     */
+    public String toss(){
+        String str = "You tossed the " + getName() + " from your inventory.\n";
+        return str;
+    }
+
+    /**
+     * Reads the item. Items flagged readable without being a Spell or BrandedClothing use this.
+     * @return string containing feedback from reading the item
+     */
+    public String read(){
+        String str = "You read the item: '" + getLongDescription() + "'.\n";
+        return str;
+    }
+
+    /**
+     * Serializes the item, reading in its description first if it is still in a text store.
+     * @param out stream the item is written to
+     * @throws IOException if the stream cannot be written
+     */
+    private void writeObject(ObjectOutputStream out) throws IOException{
+        desc = getLongDescription();
+        out.defaultWriteObject();
+    }
+
+    /**
+     * Deserializes the item. Items saved before they had capability bits get the ones their class implies.
+     * @param in stream the item is read from
+     * @throws IOException if the stream cannot be read
+     * @throws ClassNotFoundException if a class in the stream cannot be found
+     */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException{
+        in.defaultReadObject();
+        if(capabilities == 0){
+            capabilities = Inventory.Capability.typeMask(this);
+        }
+    }
+
     /**
      * Gets the item details.
      * @return a string containing details about the item
      */
     public String toString(){
         String str = "Item Name: " + itemName + "\nID: " + itemID 
-                     + "\nDescription: " + desc + "\n";
+                     + "\nDescription: " + getLongDescription() + "\n";
 
         if(containingRoom != null){
             str += "Containing Room: " + getContainingRoom().getName() + "\n";
@@ -0,0 +1,417 @@
+package adventure;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * A full snapshot of a game laid out so it can be memory-mapped and resumed without
+ * reparsing or deserializing anything. Rooms and items are fixed-size records that refer to
+ * each other by record index, lists of IDs live in a shared int pool, and all text lives in a
+ * string table. Resuming reads nothing but these records: it still builds every room and
+ * item, so it takes time in proportion to the size of the world, but names are the only text
+ * decoded up front and descriptions stay in the mapped file until a room or item is
+ * actually looked at.
+ */
+public class MappedSnapshot implements TextStore{
+    public static final int MAGIC = 0x534E4150;
+    public static final short VERSION = 1;
+    public static final String EXTENSION = ".snap";
+    private static final Direction[] EXIT_DIRECTIONS = Direction.values();
+    private static final int HEADER_BYTES = 13 * Integer.BYTES;
+    private static final int ROOM_BYTES = (8 + EXIT_DIRECTIONS.length) * Integer.BYTES;
+    private static final int ITEM_BYTES = 5 * Integer.BYTES;
+    private static final int EQUIPPED = 0x100;
+    private static final int CONSUMED = 0x200;
+    private static final int KIND_MASK = 0xFF;
+    private static final int CAPABILITY_SHIFT = 16;
+
+    private MappedByteBuffer data;
+    private int stringsOffset;
+
+    /**
+     * Creates a snapshot reader over a mapped snapshot file.
+     * @param mapped the mapped contents of the file
+     */
+    private MappedSnapshot(MappedByteBuffer mapped){
+        data = mapped;
+        stringsOffset = data.getInt(48);
+    }
+
+    /**
+     * Checks if a file starts with the marker of this snapshot format.
+     * @param filename path of the file
+     * @return true if the file is a mapped snapshot, false if not
+     */
+    public static boolean isSnapshot(String filename){
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)){
+            ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES);
+            while(buffer.hasRemaining() && channel.read(buffer) >= 0){
+                continue;
+            }
+            buffer.flip();
+            return buffer.remaining() == Integer.BYTES && buffer.getInt() == MAGIC;
+        }catch(IOException e){
+            return false;
+        }
+    }
+
+    /**
+     * Writes a full snapshot of a game. The snapshot is written to a temporary file next to
+     * the target and moved into place, so a game resumed from the target keeps reading its
+     * descriptions from the old file while the new one is written over it.
+     * @param filename path of the snapshot file
+     * @param adventure the adventure being played
+     * @param player the player playing the adventure
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(String filename, Adventure adventure, Player player) throws IOException{
+        ArrayList<Room> rooms = adventure.listAllRooms();
+        IntMap<Integer> roomIndex = new IntMap<Integer>(rooms.size());
+        for(int i = 0; i < rooms.size(); i++){
+            roomIndex.put(rooms.get(i).getID(), i);
+        }
+        ArrayList<Item> items = new ArrayList<Item>(adventure.listAllItems());
+        IntMap<Integer> itemIndex = new IntMap<Integer>(items.size());
+        for(int i = 0; i < items.size(); i++){
+            itemIndex.put(items.get(i).getID(), i);
+        }
+        int liveItems = items.size();
+        for(Item item : adventure.getRegistry().listItems()){
+            if(!itemIndex.containsKey(item.getID())){
+                itemIndex.put(item.getID(), items.size());
+                items.add(item);
+            }
+        }
+
+        StringTable strings = new StringTable();
+        IntPool pool = new IntPool();
+        ByteBuffer roomSection = ByteBuffer.allocate(rooms.size() * ROOM_BYTES);
+        for(Room room : rooms){
+            roomSection.putInt(room.getID());
+            roomSection.putInt(strings.ref(room.getName()));
+            roomSection.putInt(strings.ref(room.getShortDescription()));
+            roomSection.putInt(strings.ref(room.getLongDescription()));
+            for(Direction dir : EXIT_DIRECTIONS){
+                Room connected = room.getConnectedRoom(dir);
+                roomSection.putInt(connected == null ? -1 : roomIndex.get(connected.getID()));
+            }
+            roomSection.putInt(pool.size());
+            roomSection.putInt(room.getLootIDList().size());
+            for(Integer lootID : room.getLootIDList()){
+                pool.add(lootID);
+            }
+            roomSection.putInt(pool.size());
+            roomSection.putInt(room.listItems().size());
+            for(Item item : room.listItems()){
+                pool.add(itemIndex.get(item.getID()));
+            }
+        }
+
+        ByteBuffer itemSection = ByteBuffer.allocate(items.size() * ITEM_BYTES);
+        for(int i = 0; i < items.size(); i++){
+            Item item = items.get(i);
+            int flags = kindOf(item) | item.getCapabilities() << CAPABILITY_SHIFT;
+            if(item.isEquipped()){ flags |= EQUIPPED;}
+            if(i >= liveItems){ flags |= CONSUMED;}
+            itemSection.putInt(item.getID());
+            itemSection.putInt(strings.ref(item.getName()));
+            itemSection.putInt(strings.ref(item.getLongDescription()));
+            itemSection.putInt(flags);
+            Room home = item.getContainingRoom();
+            itemSection.putInt(home == null || !roomIndex.containsKey(home.getID()) ? -1 : roomIndex.get(home.getID()));
+        }
+
+        int inventoryOffset = pool.size();
+        for(Item item : player.getInventory()){
+            pool.add(itemIndex.get(item.getID()));
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(MAGIC);
+        header.putShort(VERSION);
+        header.putShort((short) 0);
+        header.putInt(rooms.size());
+        header.putInt(items.size());
+        header.putInt(liveItems);
+        header.putInt(roomIndex.get(adventure.getCurrentRoom().getID()));
+        header.putInt(strings.ref(adventure.getSource()));
+        header.putInt(strings.ref(player.getName()));
+        header.putInt(strings.ref(player.getSaveGameName()));
+        header.putInt(inventoryOffset);
+        header.putInt(player.getInventory().size());
+        int poolOffset = HEADER_BYTES + roomSection.capacity() + itemSection.capacity();
+        header.putInt(poolOffset);
+        header.putInt(poolOffset + pool.size() * Integer.BYTES);
+
+        ByteBuffer[] sections = {header, roomSection, itemSection, pool.toBuffer(), strings.toBuffer()};
+        for(ByteBuffer section : sections){
+            section.flip();
+        }
+        Path target = Paths.get(filename).toAbsolutePath();
+        Path temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)){
+                while(sections[sections.length - 1].hasRemaining()){
+                    channel.write(sections);
+                }
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Maps a snapshot file and rebuilds the game it holds. Room and item descriptions are
+     * left in the mapped file and only decoded when they are asked for.
+     * @param filename path of the snapshot file
+     * @param player the new player for the game, filled in from the snapshot
+     * @return the resumed adventure
+     * @throws IOException if the file cannot be mapped or is not a snapshot in this format
+     */
+    public static Adventure resume(String filename, Player player) throws IOException{
+        MappedByteBuffer mapped;
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)){
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if(mapped.capacity() < HEADER_BYTES || mapped.getInt(0) != MAGIC){
+            throw new IOException(filename + " is not a snapshot file.");
+        }
+        if(mapped.getShort(4) != VERSION){
+            throw new IOException("Unsupported snapshot version " + mapped.getShort(4) + ".");
+        }
+        try{
+            return new MappedSnapshot(mapped).restore(player);
+        }catch(RuntimeException e){
+            throw new IOException(filename + " is not a complete snapshot file.", e);
+        }
+    }
+
+    /**
+     * Rebuilds the rooms, items and player from the mapped records.
+     * @param player the player to fill in
+     * @return the resumed adventure
+     */
+    private Adventure restore(Player player){
+        int roomCount = data.getInt(8);
+        int itemCount = data.getInt(12);
+        int liveItems = data.getInt(16);
+        int poolOffset = data.getInt(44);
+        int roomsOffset = HEADER_BYTES;
+        int itemsOffset = roomsOffset + roomCount * ROOM_BYTES;
+
+        Adventure adventure = new Adventure();
+        Item[] items = new Item[itemCount];
+        for(int i = 0; i < itemCount; i++){
+            int record = itemsOffset + i * ITEM_BYTES;
+            int flags = data.getInt(record + 12);
+            Item item = newItem(flags & KIND_MASK);
+            item.setItemID(data.getInt(record));
+            item.setItemName(getText(data.getInt(record + 4)));
+            item.setLazyDesc(this, data.getInt(record + 8));
+            item.setEquipped((flags & EQUIPPED) != 0);
+            if((flags >>> CAPABILITY_SHIFT) != 0){
+                item.setCapabilities(flags >>> CAPABILITY_SHIFT);
+            }
+            items[i] = item;
+            if(i < liveItems){
+                adventure.addItem(item);
+            }else{
+                adventure.getRegistry().addItem(item);
+            }
+        }
+
+        Room[] rooms = new Room[roomCount];
+        for(int i = 0; i < roomCount; i++){
+            int record = roomsOffset + i * ROOM_BYTES;
+            Room room = new Room();
+            room.setRoomID(data.getInt(record));
+            room.setRoomName(getText(data.getInt(record + 4)));
+            room.setLazyDescriptions(this, data.getInt(record + 8), data.getInt(record + 12));
+            rooms[i] = room;
+            adventure.addRoom(room);
+        }
+        for(int i = 0; i < roomCount; i++){
+            int record = roomsOffset + i * ROOM_BYTES;
+            for(int d = 0; d < EXIT_DIRECTIONS.length; d++){
+                int exit = data.getInt(record + 16 + d * Integer.BYTES);
+                if(exit >= 0){
+                    rooms[i].setConnectedRoom(EXIT_DIRECTIONS[d], rooms[exit]);
+                }
+            }
+            int fields = record + 16 + EXIT_DIRECTIONS.length * Integer.BYTES;
+            int lootStart = poolOffset + data.getInt(fields) * Integer.BYTES;
+            for(int j = 0; j < data.getInt(fields + 4); j++){
+                rooms[i].addLootID(data.getInt(lootStart + j * Integer.BYTES));
+            }
+            int contentStart = poolOffset + data.getInt(fields + 8) * Integer.BYTES;
+            for(int j = 0; j < data.getInt(fields + 12); j++){
+                rooms[i].addItem(items[data.getInt(contentStart + j * Integer.BYTES)]);
+            }
+        }
+        for(int i = 0; i < itemCount; i++){
+            int home = data.getInt(itemsOffset + i * ITEM_BYTES + 16);
+            items[i].setContainingRoom(home < 0 ? null : rooms[home]);
+        }
+
+        int inventoryStart = poolOffset + data.getInt(36) * Integer.BYTES;
+        for(int j = 0; j < data.getInt(40); j++){
+            player.addItem(items[data.getInt(inventoryStart + j * Integer.BYTES)]);
+        }
+        player.setName(getText(data.getInt(28)));
+        player.setSaveGameName(getText(data.getInt(32)));
+        adventure.setSource(getText(data.getInt(24)));
+        adventure.setCurrentRoom(rooms[data.getInt(20)]);
+        player.setCurrentRoom(adventure.getCurrentRoom());
+        return adventure;
+    }
+
+    /**
+     * Decodes a string from the mapped string table.
+     * @param ref offset of the string in the string table, -1 for null
+     * @return the decoded string
+     */
+    @Override
+    public String getText(int ref){
+        if(ref < 0){
+            return null;
+        }
+        ByteBuffer view = data.duplicate();
+        view.position(stringsOffset + ref);
+        byte[] bytes = new byte[view.getInt()];
+        view.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Gets the code stored for the class of an item.
+     * @param item the item
+     * @return the item's kind code
+     */
+    private static int kindOf(Item item){
+        if(item instanceof SmallFood){ return 2;}
+        else if(item instanceof Food){ return 1;}
+        else if(item instanceof BrandedClothing){ return 4;}
+        else if(item instanceof Clothing){ return 3;}
+        else if(item instanceof Weapon){ return 5;}
+        else if(item instanceof Spell){ return 6;}
+        return 0;
+    }
+
+    /**
+     * Creates an empty item of the class a kind code stands for.
+     * @param kind the kind code
+     * @return the new item
+     */
+    private static Item newItem(int kind){
+        switch(kind){
+            case 1: return new Food();
+            case 2: return new SmallFood();
+            case 3: return new Clothing();
+            case 4: return new BrandedClothing();
+            case 5: return new Weapon();
+            case 6: return new Spell();
+            default: return new Item();
+        }
+    }
+
+    /**
+     * Collects the strings of a snapshot, storing each distinct string once.
+     */
+    private static class StringTable{
+        private HashMap<String, Integer> refs = new HashMap<String, Integer>();
+        private ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        /**
+         * Gets the reference of a string, adding it to the table if it is new.
+         * @param str the string
+         * @return offset of the string in the table, -1 for null
+         */
+        int ref(String str){
+            if(str == null){
+                return -1;
+            }
+            Integer ref = refs.get(str);
+            if(ref == null){
+                ref = bytes.size();
+                byte[] encoded = str.getBytes(StandardCharsets.UTF_8);
+                bytes.write(encoded.length >>> 24);
+                bytes.write(encoded.length >>> 16);
+                bytes.write(encoded.length >>> 8);
+                bytes.write(encoded.length);
+                bytes.write(encoded, 0, encoded.length);
+                refs.put(str, ref);
+            }
+            return ref;
+        }
+
+        /**
+         * Gets the table as a buffer ready to be flipped and written.
+         * @return buffer holding the table
+         */
+        ByteBuffer toBuffer(){
+            ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+            buffer.position(buffer.limit());
+            return buffer;
+        }
+    }
+
+    /**
+     * A growable pool of ints that lists of IDs and record indexes are stored in.
+     */
+    private static class IntPool{
+        private int[] values = new int[64];
+        private int size;
+
+        /**
+         * Adds a value to the end of the pool.
+         * @param value the value
+         */
+        void add(int value){
+            if(size == values.length){
+                int[] grown = new int[size * 2];
+                System.arraycopy(values, 0, grown, 0, size);
+                values = grown;
+            }
+            values[size++] = value;
+        }
+
+        /**
+         * Gets the number of values in the pool.
+         * @return number of values
+         */
+        int size(){
+            return size;
+        }
+
+        /**
+         * Gets the pool as a buffer ready to be flipped and written.
+         * @return buffer holding the pool
+         */
+        ByteBuffer toBuffer(){
+            ByteBuffer buffer = ByteBuffer.allocate(size * Integer.BYTES);
+            buffer.asIntBuffer().put(values, 0, size);
+            buffer.position(buffer.limit());
+            return buffer;
+        }
+    }
+
+    /**
+     * Gets the snapshot details.
+     * @return a string containing the number of rooms and items in the snapshot
+     */
+    public String toString(){
+        String str = "Mapped snapshot with " + data.getInt(8) + " rooms and " + data.getInt(12) + " items\n";
+        return str;
+    }
+}
@@ -5,6 +5,34 @@ package adventure;
  * command constructor to call.
  */
 public class Parser{
+    private Command reusable;
+    private VerbRegistry verbs;
+    private Session session;
+
+    /**
+     * Default constructor. Parses the built-in verbs for the game started on the console or GUI.
+     */
+    public Parser(){
+        verbs = new VerbRegistry();
+    }
+
+    /**
+     * Creates a parser for the commands of one session.
+     * @param owner the session commands are checked and carried out in
+     * @param registry the verbs the parser understands, which may be shared between sessions
+     */
+    public Parser(Session owner, VerbRegistry registry){
+        session = owner;
+        verbs = registry;
+    }
+
+    /**
+     * Gets the verbs this parser understands, so new ones can be registered.
+     * @return the verb registry of this parser
+     */
+    public VerbRegistry getVerbRegistry(){
+        return verbs;
+    }
 
     /**
      * Parses the user command and calls different command 
@@ -20,6 +48,8 @@ public class Parser{
             if(split.length == 1){userCmd = new Command(split[0]);}
             else if (split.length == 2){userCmd = new Command(split[0], split[1]);}
             else{userCmd = new Command();}
+            userCmd.setVerb(verbs.lookup(split[0]));
+            userCmd.setSession(getSession());
             userCmd.checkOverallValidity();
         }catch (InvalidCommandException ex){
             throw ex;
@@ -27,6 +57,45 @@ public class Parser{
         return userCmd;
     }
 
+    /**
+     * Parses the user command into a command object owned by this parser, without throwing
+     * or using a regular expression. The same object is returned by every call, so it must
+     * be used before the next command is parsed. Check it with validate().
+     * @param userCommand string containing the command the user entered
+     * @return this parser's command object filled in with the user command
+     */
+    public Command parse(String userCommand){
+        if(reusable == null){
+            reusable = new Command(getSession());
+        }
+        reusable.setSession(getSession());
+        int space = userCommand.indexOf(' ');
+        int verbEnd = space < 0 ? userCommand.length() : space;
+        String noun = space < 0 ? null : userCommand.substring(space + 1);
+        reusable.reset(userCommand, verbEnd, verbs.lookup(userCommand, 0, verbEnd), noun);
+        return reusable;
+    }
+
+    /**
+     * Gets the session this parser's commands belong to.
+     * @return the parser's session, or the console game's session if it wasn't given one
+     */
+    public Session getSession(){
+        if(session == null){
+            return Game.getCurrentSession();
+        }
+        return session;
+    }
+
+    /**
+     * Checks a user command without throwing.
+     * @param userCommand string containing the command the user entered
+     * @return the shared valid result, or a result carrying why the command was rejected
+     */
+    public ValidationResult validate(String userCommand){
+        return parse(userCommand).validate();
+    }
+
     /**
      * Gets list of all valid commands
      * @return string containing all valid commands
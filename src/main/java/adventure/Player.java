@@ -1,5 +1,7 @@
 package adventure;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * Represents a player in the game.
@@ -10,6 +12,7 @@ public class Player implements java.io.Serializable{
     private String name;
     private Room currentRoom;
     private String saveGameName;
+    private transient Inventory inventoryIndex;
 
     /**
      * Default constructor. Sets member variables.
@@ -26,13 +29,26 @@ public class Player implements java.io.Serializable{
      */
     public void setInventory(ArrayList<Item> inv){
         inventory = inv;
+        inventoryIndex = null;
     }
     /**
-     * Gets arraylist containing items in inventory
-     * @return inventory arraylist
+     * Gets the items in inventory. Items are added and removed through addItem and
+     * removeItem, so the inventory index stays up to date.
+     * @return read-only view of the inventory
      */
-    public ArrayList<Item> getInventory(){
-        return inventory;
+    public List<Item> getInventory(){
+        return Collections.unmodifiableList(inventory);
+    }
+
+    /**
+     * Gets the index over the items in inventory, built the first time it is needed.
+     * @return inventory indexed by item name and capability
+     */
+    public Inventory getInventoryIndex(){
+        if(inventoryIndex == null){
+            inventoryIndex = new Inventory(inventory);
+        }
+        return inventoryIndex;
     }
 
     /**
@@ -40,7 +56,7 @@ public class Player implements java.io.Serializable{
      * @param item item to be added to inventory
      */
     public void addItem(Item item){
-        inventory.add(item);
+        getInventoryIndex().add(item);
     }
 
     /**
@@ -48,9 +64,7 @@ public class Player implements java.io.Serializable{
      * @param item item to be removed from inventory
      */
     public void removeItem(Item item){
-        if(inventory.contains(item)){
-            inventory.remove(item);
-        }
+        getInventoryIndex().remove(item);
     }
 
     /**
@@ -106,15 +120,16 @@ public class Player implements java.io.Serializable{
      * @return a string containing details about the player
      */
     public String toString(){
-        String str = "Player Name: " + name + "\nCurrent Room: " + currentRoom.getName() 
-        + "\nSave Name: "+ saveGameName + "\n";
+        StringBuilder str = new StringBuilder();
+        str.append("Player Name: ").append(name).append("\nCurrent Room: ").append(currentRoom.getName())
+           .append("\nSave Name: ").append(saveGameName).append('\n');
         if(inventory.size() > 0){
-            str += "Items in inventory:\n";
+            str.append("Items in inventory:\n");
             for(Item item : inventory){
-                str += item.toString() + "\n";
+                str.append(item.toString()).append('\n');
             }
-            str += "\n";
+            str.append('\n');
         }
-        return str;
+        return str.toString();
     }
 }
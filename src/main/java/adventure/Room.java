@@ -1,4 +1,7 @@
 package adventure;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.util.ArrayList;
 import java.util.HashMap;
 import org.json.simple.JSONArray;
@@ -15,8 +18,16 @@ public class Room implements java.io.Serializable{
     private String longDesc;
     private ArrayList<Item> itemsInRoom;
     private HashMap<String, Room> map;
+    private Room[] exits;
+    private transient HashMap<String, ArrayList<Item>> itemIndex;
+    private transient String view;
+    private transient int viewItemsStart;
     private ArrayList<Integer> entranceIDList;
+    private ArrayList<String> entranceDirList;
     private ArrayList<Integer> lootIDList;
+    private transient TextStore textStore;
+    private transient int shortDescRef;
+    private transient int longDescRef;
 
     /**
      * Default constructor for Room class. Initializes member variables.
@@ -26,12 +37,36 @@ public class Room implements java.io.Serializable{
         roomID = 0;
         shortDesc = null;
         longDesc = null;
+        view = null;
         itemsInRoom = new ArrayList<Item>();
         map = new HashMap<String, Room>();
+        exits = new Room[Direction.values().length];
         entranceIDList = new ArrayList<Integer>();
+        entranceDirList = new ArrayList<String>();
         lootIDList = new ArrayList<Integer>();
     }
 
+    /**
+     * Copy constructor for a session that changes what is in a shared room. The copy has its
+     * own list of items but shares the original's exits, descriptions and loot.
+     * @param original the room to be copied
+     */
+    public Room(Room original){
+        roomName = original.roomName;
+        roomID = original.roomID;
+        shortDesc = original.shortDesc;
+        longDesc = original.longDesc;
+        itemsInRoom = new ArrayList<Item>(original.itemsInRoom);
+        map = original.map;
+        exits = original.exits;
+        entranceIDList = original.entranceIDList;
+        entranceDirList = original.entranceDirList;
+        lootIDList = original.lootIDList;
+        textStore = original.textStore;
+        shortDescRef = original.shortDescRef;
+        longDescRef = original.longDescRef;
+    }
+
     /**
      * Overloaded constructor that sets the member variables according to a JSONObject passed in.
      * @param room JSONObject containing details of the room
@@ -39,7 +74,9 @@ public class Room implements java.io.Serializable{
     public Room(JSONObject room){
         itemsInRoom = new ArrayList<Item>();
         map = new HashMap<String, Room>();
+        exits = new Room[Direction.values().length];
         entranceIDList = new ArrayList<Integer>();
+        entranceDirList = new ArrayList<String>();
         lootIDList = new ArrayList<Integer>();
 
         setRoomName((String) room.get("name"));
@@ -53,13 +90,17 @@ public class Room implements java.io.Serializable{
      */
     public void setItemsInRoom(ArrayList<Item> items){
         itemsInRoom = items;
+        itemIndex = null;
+        view = null;
     }
 
     /**
      * @param roomsMap hashmap of rooms
      */
     public void setMap(HashMap<String, Room> roomsMap){
-        map = roomsMap;
+        map = new HashMap<String, Room>(roomsMap);
+        exits = new Room[Direction.values().length];
+        moveStandardExits();
     }
 
     /**
@@ -70,6 +111,116 @@ public class Room implements java.io.Serializable{
         return itemsInRoom;
     }
 
+    /**
+     * Finds the item in the room with a name, in any case. If several items share the name,
+     * the one added last is returned.
+     * @param name the name typed by the player
+     * @return the matching item, null if there is none in the room
+     */
+    public Item findItem(String name){
+        ArrayList<Item> matches = getItemIndex().get(nameKey(name));
+        if(matches == null){
+            return null;
+        }
+        return matches.get(matches.size() - 1);
+    }
+
+    /**
+     * Gets the key an item name is indexed under. Characters are folded the same way
+     * equalsIgnoreCase compares them, so names that match in any case share a key.
+     * @param name the item name
+     * @return the case-folded name, null if name is null
+     */
+    static String nameKey(String name){
+        if(name == null){
+            return null;
+        }
+        char[] folded = new char[name.length()];
+        for(int i = 0; i < folded.length; i++){
+            folded[i] = Character.toLowerCase(Character.toUpperCase(name.charAt(i)));
+        }
+        return new String(folded);
+    }
+
+    /**
+     * Gets the index of items by name, building it from the item list if it isn't built yet.
+     * @return map from case-folded name to the items with that name, in list order
+     */
+    private HashMap<String, ArrayList<Item>> getItemIndex(){
+        if(itemIndex == null){
+            itemIndex = new HashMap<String, ArrayList<Item>>(Math.max(16, itemsInRoom.size() * 2));
+            for(Item item : itemsInRoom){
+                indexItem(item);
+            }
+        }
+        return itemIndex;
+    }
+
+    /**
+     * Adds an item to the name index.
+     * @param item the item to be indexed
+     */
+    private void indexItem(Item item){
+        String key = nameKey(item.getName());
+        ArrayList<Item> matches = itemIndex.get(key);
+        if(matches == null){
+            matches = new ArrayList<Item>(1);
+            itemIndex.put(key, matches);
+        }
+        matches.add(item);
+    }
+
+    /**
+     * Tells the room one of its items changed name, so the name index is rebuilt.
+     * @param item the item that was renamed
+     */
+    void itemRenamed(Item item){
+        itemIndex = null;
+        view = null;
+    }
+
+    /**
+     * Appends what the player is shown on entering the room: its name, short description
+     * and the names of the items in it.
+     * @param out buffer the room view is appended to
+     */
+    void renderView(StringBuilder out){
+        out.append(getView());
+    }
+
+    /**
+     * Appends the names of the items in the room, one per line.
+     * @param out buffer the item names are appended to
+     */
+    void renderItemNames(StringBuilder out){
+        String rendered = getView();
+        out.append(rendered, viewItemsStart, rendered.length());
+    }
+
+    /**
+     * Gets the room view, rendering it only if the room's name, short description or items
+     * changed since it was last rendered.
+     * @return the room view, with the item names starting at viewItemsStart
+     */
+    private String getView(){
+        if(view == null){
+            StringBuilder str = new StringBuilder();
+            str.append("You are in ").append(roomName).append('\n');
+            str.append(getShortDescription()).append('\n');
+            str.append("Items:\n");
+            viewItemsStart = str.length();
+            if(itemsInRoom.size() == 0){
+                str.append("There are no items in this room.\n");
+            }else{
+                for(Item item : itemsInRoom){
+                    str.append(item.getName()).append('\n');
+                }
+            }
+            view = str.toString();
+        }
+        return view;
+    }
+
     /**
      * Gets the name of the room.
      * @return a string containing the room name
@@ -84,6 +235,7 @@ public class Room implements java.io.Serializable{
      */
     public void setRoomName(String name){
         roomName = name;
+        view = null;
     }
 
     /**
@@ -107,6 +259,9 @@ public class Room implements java.io.Serializable{
      * @return a string containing the long description of the room
      */
     public String getLongDescription(){
+        if(longDesc == null && textStore != null){
+            return textStore.getText(longDescRef);
+        }
         return longDesc;
     }
 
@@ -123,15 +278,33 @@ public class Room implements java.io.Serializable{
      * @return a string containing the short description of the room
      */
     public String getShortDescription(){
+        if(shortDesc == null && textStore != null){
+            return textStore.getText(shortDescRef);
+        }
         return shortDesc;
     }
 
+    /**
+     * Sets the descriptions of the room to text that is only read from a store when it is needed.
+     * @param store the store holding the descriptions
+     * @param shortRef reference of the short description in the store
+     * @param longRef reference of the long description in the store
+     */
+    public void setLazyDescriptions(TextStore store, int shortRef, int longRef){
+        textStore = store;
+        shortDescRef = shortRef;
+        longDescRef = longRef;
+        shortDesc = null;
+        longDesc = null;
+    }
+
     /**
      * Sets the short description of the room.
      * @param desc a string containing the short description of the room
      */
     public void setShortDesc(String desc){
         shortDesc = desc;    
+        view = null;
     }
 
     /**
@@ -140,59 +313,116 @@ public class Room implements java.io.Serializable{
      * @return a reference to the room that is in the given direction
      */
     public Room getConnectedRoom(String direction) {
-        if(direction.equalsIgnoreCase("North")){direction = "N";}
-        else if(direction.equalsIgnoreCase("East")){direction = "E";}
-        else if(direction.equalsIgnoreCase("South")){direction = "S";}
-        else if(direction.equalsIgnoreCase("West")){direction = "W";}
-
-        if(map.containsKey(direction.toUpperCase())){
-            return map.get(direction.toUpperCase());
+        Direction dir = Direction.parse(direction);
+        if(dir != null){
+            return exits[dir.ordinal()];
         }
+        if(map.isEmpty()){
+            return null;
+        }
+        return map.get(direction.toUpperCase());
+    }
 
-        return null;
+    /**
+     * Gets the connected room in a direction.
+     * @param direction the direction of the requested connected room
+     * @return a reference to the room in the given direction, null if there is no exit that way
+     */
+    public Room getConnectedRoom(Direction direction){
+        return exits[direction.ordinal()];
     }
 
     /**
-     * Sets a connected room in a given direction.
+     * Sets a connected room in a given direction. Directions that aren't one of the standard
+     * ones are kept by name.
      * @param direction the direction for the given room to be set to
      * @param connectedRoom a reference to the room that is to bed connected
      */
     public void setConnectedRoom(String direction, Room connectedRoom) {
-       map.put(direction.toUpperCase(), connectedRoom);
+        Direction dir = Direction.parse(direction);
+        if(dir != null){
+            exits[dir.ordinal()] = connectedRoom;
+        }else{
+            map.put(direction.toUpperCase(), connectedRoom);
+        }
+    }
+
+    /**
+     * Sets a connected room in a direction.
+     * @param direction the direction for the given room to be set to
+     * @param connectedRoom a reference to the room that is to be connected
+     */
+    public void setConnectedRoom(Direction direction, Room connectedRoom){
+        exits[direction.ordinal()] = connectedRoom;
     }
 
     /**
      * Sets the connections between rooms in the hashmap.
-     * @param rooms arraylist of all rooms in the adventure
+     * @param registry ID index of all rooms in the adventure
      * @param entranceList JSONArray of the entrances to the room according to the adventure JSON
      */
-    public void initializeConnections(ArrayList<Room> rooms, JSONArray entranceList) throws Exception{
+    public void initializeConnections(WorldRegistry registry, JSONArray entranceList) throws Exception{
         for(Object currentEntrance : entranceList){
             JSONObject entrance = (JSONObject) currentEntrance;
-            int entranceID = ((Long) entrance.get("id")).intValue();
-            String entranceDir = (String) entrance.get("dir");
-            entranceIDList.add(entranceID);
-            for(Room room : rooms){
-                if(entranceID == room.getID()){setConnectedRoom(entranceDir, room);}
-            }
+            addEntrance(((Long) entrance.get("id")).intValue(), (String) entrance.get("dir"));
+        }
+        resolveConnections(registry);
+    }
+
+    /**
+     * Records an entrance to be connected once all rooms are known.
+     * @param entranceID ID of the room the entrance leads to
+     * @param entranceDir direction of the entrance
+     */
+    public void addEntrance(int entranceID, String entranceDir){
+        entranceIDList.add(entranceID);
+        entranceDirList.add(entranceDir);
+    }
+
+    /**
+     * Connects every recorded entrance to its room. Entrances to unknown rooms, and entrances
+     * with a missing or unknown direction, are left unconnected for AdventureValidator to report.
+     * @param registry ID index of all rooms in the adventure
+     */
+    public void resolveConnections(WorldRegistry registry){
+        for(int i = 0; i < entranceIDList.size(); i++){
+            Room room = registry.getRoom(entranceIDList.get(i));
+            Direction dir = Direction.fromKey(entranceDirList.get(i));
+            if(room != null && dir != null){setConnectedRoom(dir, room);}
         }
     }
 
     /**
      * Adds the items in the room into the room. Adds the items to the items in room arraylist.
-     * @param items arraylist of all items in the adventure
+     * @param registry ID index of all items in the adventure
      * @param lootList JSONArray of the loot in the room according to the adventure JSON
      */
-    public void initializeLoot(ArrayList<Item> items, JSONArray lootList){
+    public void initializeLoot(WorldRegistry registry, JSONArray lootList){
         for(Object currentLoot : lootList){
             JSONObject loot = (JSONObject) currentLoot;
-            int lootID = ((Long) loot.get("id")).intValue();
-            lootIDList.add(lootID);
-            for(Item item : items){
-                if(lootID == item.getID()){
-                    addItem(item);   
-                    item.setContainingRoom(this);
-                }
+            addLootID(((Long) loot.get("id")).intValue());
+        }
+        resolveLoot(registry);
+    }
+
+    /**
+     * Records a loot ID to be placed in the room once all items are known.
+     * @param lootID ID of the item in the room
+     */
+    public void addLootID(int lootID){
+        lootIDList.add(lootID);
+    }
+
+    /**
+     * Puts every recorded loot item into the room. Loot IDs of unknown items are skipped.
+     * @param registry ID index of all items in the adventure
+     */
+    public void resolveLoot(WorldRegistry registry){
+        for(Integer lootID : lootIDList){
+            Item item = registry.getItem(lootID);
+            if(item != null){
+                addItem(item);   
+                item.setContainingRoom(this);
             }
         }
     }
@@ -211,6 +441,10 @@ public class Room implements java.io.Serializable{
      */
     public void addItem(Item newItem){
         itemsInRoom.add(newItem);
+        view = null;
+        if(itemIndex != null){
+            indexItem(newItem);
+        }
     }
 
     /**
@@ -218,7 +452,17 @@ public class Room implements java.io.Serializable{
      * @param item item to be removed from list of room items
      */
     public void removeItem(Item item){
-        itemsInRoom.remove(item);
+        if(!itemsInRoom.remove(item)){
+            return;
+        }
+        view = null;
+        if(itemIndex != null){
+            String key = nameKey(item.getName());
+            ArrayList<Item> matches = itemIndex.get(key);
+            if(matches != null && matches.remove(item) && matches.isEmpty()){
+                itemIndex.remove(key);
+            }
+        }
     }
 
     /**
@@ -228,21 +472,69 @@ public class Room implements java.io.Serializable{
     public ArrayList<Integer> getEntranceIDList(){
         return entranceIDList;
     }
+
+    /**
+     * Gets the entrance directions, in the same order as the entrance ID list.
+     * @return entrance direction list
+     */
+    public ArrayList<String> getEntranceDirList(){
+        return entranceDirList;
+    }
     
+    /**
+     * Serializes the room, reading in any descriptions that are still in a text store first.
+     * @param out stream the room is written to
+     * @throws IOException if the stream cannot be written
+     */
+    private void writeObject(ObjectOutputStream out) throws IOException{
+        shortDesc = getShortDescription();
+        longDesc = getLongDescription();
+        out.defaultWriteObject();
+    }
+
+    /**
+     * Deserializes the room. Rooms saved before exits were kept by direction have every exit
+     * in the map, so the standard ones are moved into the exit table.
+     * @param in stream the room is read from
+     * @throws IOException if the stream cannot be read
+     * @throws ClassNotFoundException if a class in the stream cannot be found
+     */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException{
+        in.defaultReadObject();
+        if(exits == null){
+            exits = new Room[Direction.values().length];
+            moveStandardExits();
+        }
+    }
+
+    /**
+     * Moves every exit in the map that is in a standard direction into the exit table.
+     */
+    private void moveStandardExits(){
+        for(Direction dir : Direction.values()){
+            Room room = map.remove(dir.name());
+            if(room != null){
+                exits[dir.ordinal()] = room;
+            }
+        }
+    }
+
     /**
      * Gets the room details and details about items in the room.
      * @return a string containing details about rooms and any items in the room
     */
     public String toString(){
-        String str = "Room Name: " + roomName + "\nID: " + roomID + "\nShort Description: "
-                     + shortDesc + "\nLong Description: " + longDesc + "\n";
+        StringBuilder str = new StringBuilder();
+        str.append("Room Name: ").append(roomName).append("\nID: ").append(roomID)
+           .append("\nShort Description: ").append(getShortDescription())
+           .append("\nLong Description: ").append(getLongDescription()).append('\n');
         if(listItems().size() > 0){
-            str += "Items in room:\n";
+            str.append("Items in room:\n");
             for(Item item : listItems()){
-                str += item.toString() + "\n";
+                str.append(item.toString()).append('\n');
             }
-            str += "\n";
+            str.append('\n');
         }
-        return str;
+        return str.toString();
     }
 }
@@ -0,0 +1,783 @@
+package adventure;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Serves an adventure over the same line protocol as GameServer, but from a single thread
+ * running a java.nio Selector, so a connection costs a session and a few small buffers rather
+ * than a thread. Input is read into one shared buffer and split into lines; each line is
+ * answered through the connection's Session. Responses are encoded into pooled direct
+ * buffers and sent with gathering writes.
+ * A slow reader is held back: once a connection has more than the high watermark of
+ * unsent output, its input is no longer read or answered until the output drains below the
+ * low watermark.
+ * Run with: java -cp ... adventure.SelectorGameServer [-a adventure.json] [-p port] [-m max sessions] [-t idle seconds] [-s]
+ * With -s every player plays in one SharedWorld and sees the others' changes.
+ */
+public class SelectorGameServer implements AutoCloseable{
+    public static final int DEFAULT_HIGH_WATERMARK = 64 * 1024;
+    public static final int DEFAULT_LOW_WATERMARK = 16 * 1024;
+    public static final int MAX_LINE_BYTES = 1024;
+    public static final String LINE_TOO_LONG_MESSAGE = "That command is too long. Goodbye.\n";
+    private static final int BUFFER_SIZE = 4096;
+    private static final int RETAINED_BUFFERS = 1024;
+    private static final int MAX_GATHER = 16;
+    private static final long SELECT_MILLIS = 1000;
+    private static final long ACCEPT_BACKOFF_MILLIS = 100;
+    private static final long CLOSE_GRACE_NANOS = 1000000000L;
+    private static final String PROMPT = "\n> ";
+
+    private final WorldTemplate template;
+    private final VerbRegistry verbs;
+    private final int maxSessions;
+    private final long idleNanos;
+    private final BufferPool pool;
+    private final ByteBuffer readBuffer;
+    private final ByteBuffer[] gather;
+    private final byte[] lineBytes;
+    private final CharsetEncoder encoder;
+    private final StringBuilder response;
+    private final AtomicInteger activeSessions;
+    private final AtomicLong acceptedSessions;
+    private final AtomicLong rejectedSessions;
+    private final AtomicLong commandCount;
+    private final AtomicLong backpressurePauses;
+    private final AtomicLong acceptFailures;
+    private int highWatermark;
+    private int lowWatermark;
+    private Selector selector;
+    private ServerSocketChannel serverChannel;
+    private SelectionKey acceptKey;
+    private boolean acceptPaused;
+    private long acceptResumeAt;
+    private Thread loop;
+    private volatile long drainDeadline;
+    private volatile boolean stopping;
+    private volatile boolean drained;
+
+    /**
+     * State of one connected client, kept as the attachment of its selection key.
+     */
+    private static final class Connection{
+        private final SocketChannel channel;
+        private final SelectionKey key;
+        private final Session session;
+        private final ArrayDeque<ByteBuffer> output;
+        private byte[] carry;
+        private int carryLength;
+        private int pendingBytes;
+        private boolean paused;
+        private boolean closing;
+        private long lastActive;
+        private long closeBy;
+
+        /**
+         * Creates the state for a newly accepted client.
+         * @param socket the client's channel
+         * @param selectionKey the channel's registration with the selector
+         * @param clientSession the client's session, null if the client is being turned away
+         */
+        private Connection(SocketChannel socket, SelectionKey selectionKey, Session clientSession){
+            channel = socket;
+            key = selectionKey;
+            session = clientSession;
+            output = new ArrayDeque<ByteBuffer>(4);
+        }
+    }
+
+    /**
+     * Creates a server for an adventure. Nothing is opened until start is called.
+     * @param world the template every session plays a copy-on-write view of
+     * @param max most sessions connected at once; further connections are turned away
+     * @param idleSeconds seconds a session may wait for the next line before it is closed, 0 for never
+     */
+    public SelectorGameServer(WorldTemplate world, int max, int idleSeconds){
+        template = world;
+        verbs = new VerbRegistry();
+        maxSessions = max;
+        idleNanos = idleSeconds * 1000000000L;
+        pool = new BufferPool(BUFFER_SIZE, RETAINED_BUFFERS);
+        readBuffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        gather = new ByteBuffer[MAX_GATHER];
+        lineBytes = new byte[MAX_LINE_BYTES];
+        encoder = StandardCharsets.UTF_8.newEncoder();
+        response = new StringBuilder();
+        activeSessions = new AtomicInteger();
+        acceptedSessions = new AtomicLong();
+        rejectedSessions = new AtomicLong();
+        commandCount = new AtomicLong();
+        backpressurePauses = new AtomicLong();
+        acceptFailures = new AtomicLong();
+        highWatermark = DEFAULT_HIGH_WATERMARK;
+        lowWatermark = DEFAULT_LOW_WATERMARK;
+    }
+
+    /**
+     * Sets how much unsent output a connection may build up before its input stops being
+     * read. Must be called before start.
+     * @param low bytes of unsent output below which a held back connection is read again
+     * @param high bytes of unsent output above which a connection is held back
+     * @throws IllegalArgumentException if low is negative or not below high
+     */
+    public void setWatermarks(int low, int high){
+        if(low < 0 || low >= high){
+            throw new IllegalArgumentException("The low watermark must be at least 0 and below the high watermark.");
+        }
+        lowWatermark = low;
+        highWatermark = high;
+    }
+
+    /**
+     * Opens the port on the loopback address and starts the event loop.
+     * @param port port to listen on, 0 for any free port
+     * @return the port being listened on
+     * @throws IOException if the port cannot be opened
+     */
+    public int start(int port) throws IOException{
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 1024);
+        serverChannel.configureBlocking(false);
+        acceptKey = serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        loop = new Thread(this::eventLoop, "adventure-selector");
+        loop.start();
+        return ((InetSocketAddress) serverChannel.getLocalAddress()).getPort();
+    }
+
+    /**
+     * Waits for and handles network events until the server has stopped and drained.
+     */
+    private void eventLoop(){
+        long lastIdleCheck = System.nanoTime();
+        boolean draining = false;
+        boolean timeUp = false;
+        try {
+            while(true){
+                if(stopping && !draining){
+                    draining = true;
+                    acceptPaused = false;
+                    serverChannel.close();
+                }
+                if(draining && !timeUp && System.nanoTime() - drainDeadline >= 0){
+                    timeUp = true;
+                    cutOff();
+                }
+                if(draining && activeSessions.get() == 0){
+                    drained = !timeUp;
+                    break;
+                }
+                if(acceptPaused && System.nanoTime() - acceptResumeAt >= 0){
+                    acceptPaused = false;
+                    acceptKey.interestOps(SelectionKey.OP_ACCEPT);
+                }
+                selector.select(acceptPaused ? ACCEPT_BACKOFF_MILLIS : SELECT_MILLIS);
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while(keys.hasNext()){
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if(!key.isValid()){
+                        continue;
+                    }
+                    if(key.isAcceptable()){
+                        accept();
+                        continue;
+                    }
+                    Connection connection = (Connection) key.attachment();
+                    try {
+                        if(key.isWritable()){
+                            flush(connection);
+                            resumeIfDrained(connection);
+                        }
+                        if(key.isValid() && key.isReadable()){
+                            read(connection);
+                        }
+                    } catch (RuntimeException e) {
+                        close(connection);
+                    }
+                }
+                long now = System.nanoTime();
+                if(now - lastIdleCheck >= SELECT_MILLIS * 1000000L){
+                    lastIdleCheck = now;
+                    closeStale(now);
+                }
+            }
+        } catch (IOException e) {
+            return;
+        } finally {
+            closeAll();
+        }
+    }
+
+    /**
+     * Accepts every waiting connection, turning away those over the session limit. A
+     * connection that can't be set up is closed on its own. If accepting itself fails, for
+     * example because the process is out of file descriptors, accepting is paused briefly
+     * while the players already connected carry on.
+     */
+    private void accept(){
+        while(true){
+            SocketChannel channel;
+            try {
+                channel = serverChannel.accept();
+            } catch (IOException e) {
+                acceptFailures.incrementAndGet();
+                acceptPaused = true;
+                acceptKey.interestOps(0);
+                acceptResumeAt = System.nanoTime() + ACCEPT_BACKOFF_MILLIS * 1000000L;
+                return;
+            }
+            if(channel == null){
+                return;
+            }
+            SelectionKey key;
+            try {
+                channel.configureBlocking(false);
+                channel.socket().setTcpNoDelay(true);
+                key = channel.register(selector, SelectionKey.OP_READ);
+            } catch (IOException e) {
+                acceptFailures.incrementAndGet();
+                closeQuietly(channel);
+                continue;
+            }
+            boolean full = activeSessions.get() >= maxSessions;
+            Connection connection = new Connection(channel, key, full ? null : template.newSession(verbs));
+            key.attach(connection);
+            connection.lastActive = System.nanoTime();
+            activeSessions.incrementAndGet();
+            if(full){
+                rejectedSessions.incrementAndGet();
+                closeWith(connection, GameServer.FULL_MESSAGE);
+            }else{
+                acceptedSessions.incrementAndGet();
+                Adventure adventure = connection.session.getAdventure();
+                response.setLength(0);
+                response.append(adventure.newRoomString(adventure.getCurrentRoom())).append(PROMPT);
+                enqueue(connection, response);
+                flush(connection);
+            }
+        }
+    }
+
+    /**
+     * Reads what a client has sent and answers the complete lines in it.
+     * @param connection the client being read
+     */
+    private void read(Connection connection){
+        readBuffer.clear();
+        int count;
+        try {
+            count = connection.channel.read(readBuffer);
+        } catch (IOException e) {
+            close(connection);
+            return;
+        }
+        if(count < 0){
+            close(connection);
+            return;
+        }
+        connection.lastActive = System.nanoTime();
+        readBuffer.flip();
+        if(connection.carryLength > 0){
+            appendCarry(connection, readBuffer);
+            ByteBuffer carried = ByteBuffer.wrap(connection.carry, 0, connection.carryLength);
+            connection.carryLength = 0;
+            answerLines(connection, carried);
+        }else{
+            answerLines(connection, readBuffer);
+        }
+        flush(connection);
+        resumeIfDrained(connection);
+    }
+
+    /**
+     * Answers complete lines from a client's input until the input runs out, the connection
+     * is closing or its unsent output passes the high watermark. Whatever is left over is
+     * carried until the next read or until the connection is resumed.
+     * @param connection the client whose input this is
+     * @param input bytes from the client, read from position to limit
+     */
+    private void answerLines(Connection connection, ByteBuffer input){
+        int start = input.position();
+        int limit = input.limit();
+        for(int i = start; i < limit && !connection.closing; i++){
+            if(input.get(i) != '\n'){
+                continue;
+            }
+            if(connection.pendingBytes >= highWatermark){
+                break;
+            }
+            answer(connection, input, start, i);
+            start = i + 1;
+        }
+        input.position(start);
+        if(connection.closing){
+            return;
+        }
+        if(input.remaining() > MAX_LINE_BYTES && indexOf(input, '\n') < 0){
+            closeWith(connection, LINE_TOO_LONG_MESSAGE);
+            return;
+        }
+        if(input.hasRemaining()){
+            appendCarry(connection, input);
+        }
+        if(connection.pendingBytes >= highWatermark && !connection.paused){
+            connection.paused = true;
+            backpressurePauses.incrementAndGet();
+        }
+        updateInterest(connection);
+    }
+
+    /**
+     * Answers one line of a client's input.
+     * @param connection the client who sent the line
+     * @param input the buffer holding the line
+     * @param start index of the line's first byte
+     * @param end index of the line's terminating newline
+     */
+    private void answer(Connection connection, ByteBuffer input, int start, int end){
+        if(end > start && input.get(end - 1) == '\r'){
+            end--;
+        }
+        if(end - start > MAX_LINE_BYTES){
+            closeWith(connection, LINE_TOO_LONG_MESSAGE);
+            return;
+        }
+        for(int i = start; i < end; i++){
+            lineBytes[i - start] = input.get(i);
+        }
+        String line = new String(lineBytes, 0, end - start, StandardCharsets.UTF_8);
+        response.setLength(0);
+        boolean playing = connection.session.respond(line.trim(), response);
+        commandCount.incrementAndGet();
+        if(playing){
+            response.append(PROMPT);
+            enqueue(connection, response);
+        }else{
+            response.append('\n');
+            closeWith(connection, response);
+        }
+    }
+
+    /**
+     * Finds the first occurrence of a byte between a buffer's position and limit.
+     * @param input the buffer to be searched
+     * @param b the byte to look for
+     * @return index of the byte, -1 if it isn't there
+     */
+    private static int indexOf(ByteBuffer input, char b){
+        for(int i = input.position(); i < input.limit(); i++){
+            if(input.get(i) == b){
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Keeps the unanswered part of a client's input for later, after anything already carried.
+     * @param connection the client whose input this is
+     * @param input bytes to be kept, from position to limit
+     */
+    private static void appendCarry(Connection connection, ByteBuffer input){
+        int needed = connection.carryLength + input.remaining();
+        if(connection.carry == null || connection.carry.length < needed){
+            byte[] grown = new byte[Math.max(needed, BUFFER_SIZE)];
+            if(connection.carryLength > 0){
+                System.arraycopy(connection.carry, 0, grown, 0, connection.carryLength);
+            }
+            connection.carry = grown;
+        }
+        if(input.hasArray() && input.array() == connection.carry){
+            System.arraycopy(connection.carry, input.position(), connection.carry, connection.carryLength, input.remaining());
+            input.position(input.limit());
+        }else{
+            input.get(connection.carry, connection.carryLength, input.remaining());
+        }
+        connection.carryLength = needed;
+    }
+
+    /**
+     * Encodes text into pooled buffers queued for a client.
+     * @param connection the client the text is sent to
+     * @param text the text to be sent
+     */
+    private void enqueue(Connection connection, CharSequence text){
+        CharBuffer chars = CharBuffer.wrap(text);
+        encoder.reset();
+        while(true){
+            ByteBuffer buffer = pool.acquire();
+            CoderResult result = encoder.encode(chars, buffer, true);
+            if(result.isUnderflow()){
+                encoder.flush(buffer);
+            }
+            buffer.flip();
+            connection.output.addLast(buffer);
+            connection.pendingBytes += buffer.remaining();
+            if(!result.isOverflow()){
+                return;
+            }
+        }
+    }
+
+    /**
+     * Writes as much of a client's queued output as the socket accepts, several buffers at a
+     * time, and returns the sent buffers to the pool.
+     * @param connection the client being written to
+     */
+    private void flush(Connection connection){
+        ArrayDeque<ByteBuffer> output = connection.output;
+        try {
+            while(!output.isEmpty()){
+                int count = 0;
+                for(ByteBuffer buffer : output){
+                    if(count == MAX_GATHER){
+                        break;
+                    }
+                    gather[count++] = buffer;
+                }
+                long written = connection.channel.write(gather, 0, count);
+                Arrays.fill(gather, 0, count, null);
+                connection.pendingBytes -= written;
+                while(!output.isEmpty() && !output.peekFirst().hasRemaining()){
+                    pool.release(output.pollFirst());
+                }
+                if(written == 0){
+                    break;
+                }
+                if(connection.paused){
+                    connection.lastActive = System.nanoTime();
+                }
+            }
+        } catch (IOException e) {
+            close(connection);
+            return;
+        }
+        if(output.isEmpty() && connection.closing){
+            close(connection);
+            return;
+        }
+        updateInterest(connection);
+    }
+
+    /**
+     * Answers the input a held back client sent while its output was backed up, once the
+     * output has drained below the low watermark, and starts reading from it again.
+     * @param connection the client whose output was written
+     */
+    private void resumeIfDrained(Connection connection){
+        while(connection.paused && !connection.closing && connection.key.isValid()
+              && connection.pendingBytes <= lowWatermark){
+            connection.paused = false;
+            if(connection.carryLength > 0){
+                ByteBuffer carried = ByteBuffer.wrap(connection.carry, 0, connection.carryLength);
+                connection.carryLength = 0;
+                answerLines(connection, carried);
+                flush(connection);
+            }else{
+                updateInterest(connection);
+            }
+        }
+    }
+
+    /**
+     * Sets the events the selector waits for on a connection: input unless it is held back or
+     * closing, and writability while output is queued.
+     * @param connection the client whose interest is updated
+     */
+    private static void updateInterest(Connection connection){
+        if(!connection.key.isValid()){
+            return;
+        }
+        int ops = connection.paused || connection.closing ? 0 : SelectionKey.OP_READ;
+        if(!connection.output.isEmpty()){
+            ops |= SelectionKey.OP_WRITE;
+        }
+        connection.key.interestOps(ops);
+    }
+
+    /**
+     * Sends a last message to a client and closes the connection once it has been written, or
+     * once the client has had a second to take it and hasn't.
+     * @param connection the client being disconnected
+     * @param message the message to be sent
+     */
+    private void closeWith(Connection connection, CharSequence message){
+        connection.closing = true;
+        connection.closeBy = System.nanoTime() + CLOSE_GRACE_NANOS;
+        enqueue(connection, message);
+        flush(connection);
+    }
+
+    /**
+     * Closes a connection and returns its queued buffers to the pool.
+     * @param connection the client being disconnected
+     */
+    private void close(Connection connection){
+        if(!connection.key.isValid()){
+            return;
+        }
+        connection.key.cancel();
+        connection.closing = true;
+        while(!connection.output.isEmpty()){
+            pool.release(connection.output.pollFirst());
+        }
+        connection.pendingBytes = 0;
+        activeSessions.decrementAndGet();
+        try {
+            connection.channel.close();
+        } catch (IOException e) {
+            return;
+        }
+    }
+
+    /**
+     * Closes a channel, ignoring any error since it is being thrown away.
+     * @param closing the channel to be closed
+     */
+    private static void closeQuietly(SocketChannel closing){
+        try {
+            closing.close();
+        } catch (IOException e) {
+            return;
+        }
+    }
+
+    /**
+     * Disconnects clients that haven't sent or taken anything for longer than the idle
+     * timeout, and closes connections that haven't taken their last message in time. An idle
+     * client that is held back won't take a goodbye either, so it is closed at once.
+     * @param now the current System.nanoTime
+     */
+    private void closeStale(long now){
+        for(Connection connection : connections()){
+            if(connection.closing){
+                if(now - connection.closeBy > 0){
+                    close(connection);
+                }
+            }else if(idleNanos > 0 && now - connection.lastActive > idleNanos){
+                if(connection.paused || connection.pendingBytes >= highWatermark){
+                    close(connection);
+                }else{
+                    closeWith(connection, GameServer.IDLE_MESSAGE);
+                }
+            }
+        }
+    }
+
+    /**
+     * Tells every player still connected when the drain time is up that the server is
+     * shutting down, and disconnects them.
+     */
+    private void cutOff(){
+        for(Connection connection : connections()){
+            if(!connection.closing){
+                closeWith(connection, GameServer.SHUTDOWN_MESSAGE);
+            }
+        }
+    }
+
+    /**
+     * Closes every remaining connection and the selector.
+     */
+    private void closeAll(){
+        for(Connection connection : connections()){
+            close(connection);
+        }
+        try {
+            serverChannel.close();
+            selector.close();
+        } catch (IOException e) {
+            return;
+        }
+    }
+
+    /**
+     * Gets every open connection.
+     * @return list of the connections registered with the selector
+     */
+    private ArrayList<Connection> connections(){
+        ArrayList<Connection> open = new ArrayList<Connection>();
+        for(SelectionKey key : selector.keys()){
+            if(key.isValid() && key.attachment() instanceof Connection){
+                open.add((Connection) key.attachment());
+            }
+        }
+        return open;
+    }
+
+    /**
+     * Stops accepting players and gives the connected ones time to finish, as GameServer
+     * does. Sessions still connected when the time is up are told the server is shutting
+     * down and disconnected.
+     * @param drainSeconds seconds to wait for connected sessions to end on their own
+     * @return true if every session ended before the time was up, false if some were cut off
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean shutdown(int drainSeconds) throws InterruptedException{
+        if(loop == null){
+            return true;
+        }
+        drainDeadline = System.nanoTime() + drainSeconds * 1000000000L;
+        stopping = true;
+        selector.wakeup();
+        loop.join();
+        return drained;
+    }
+
+    /**
+     * Shuts the server down without waiting for connected sessions.
+     */
+    @Override
+    public void close(){
+        try {
+            shutdown(0);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Blocks until the event loop stops.
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void join() throws InterruptedException{
+        if(loop != null){
+            loop.join();
+        }
+    }
+
+    /**
+     * Gets the number of sessions connected right now.
+     * @return number of active sessions
+     */
+    public int getActiveSessions(){
+        return activeSessions.get();
+    }
+
+    /**
+     * Gets the number of sessions accepted since the server started.
+     * @return number of accepted sessions
+     */
+    public long getAcceptedSessions(){
+        return acceptedSessions.get();
+    }
+
+    /**
+     * Gets the number of connections turned away because the server was full.
+     * @return number of rejected connections
+     */
+    public long getRejectedSessions(){
+        return rejectedSessions.get();
+    }
+
+    /**
+     * Gets the number of commands answered since the server started.
+     * @return number of commands answered
+     */
+    public long getCommandCount(){
+        return commandCount.get();
+    }
+
+    /**
+     * Gets the number of times accepting a connection or setting it up failed.
+     * @return number of failed accepts
+     */
+    public long getAcceptFailures(){
+        return acceptFailures.get();
+    }
+
+    /**
+     * Gets the number of times a connection was held back because it wasn't reading its output.
+     * @return number of backpressure pauses
+     */
+    public long getBackpressurePauses(){
+        return backpressurePauses.get();
+    }
+
+    public static void main(String[] args){
+        String adventurePath = null;
+        boolean sharedWorld = false;
+        int port = GameServer.DEFAULT_PORT;
+        int max = GameServer.DEFAULT_MAX_SESSIONS;
+        int idle = GameServer.DEFAULT_IDLE_SECONDS;
+        try {
+            for(int i = 0; i < args.length; i++){
+                if(args[i].equals("-s")){
+                    sharedWorld = true;
+                }else if(i + 1 == args.length){
+                    break;
+                }else if(args[i].equals("-a")){
+                    adventurePath = args[++i];
+                }else if(args[i].equals("-p")){
+                    port = Integer.parseInt(args[++i]);
+                }else if(args[i].equals("-m")){
+                    max = Integer.parseInt(args[++i]);
+                }else if(args[i].equals("-t")){
+                    idle = Integer.parseInt(args[++i]);
+                }
+            }
+        } catch (NumberFormatException e) {
+            System.out.println("Usage: SelectorGameServer [-a adventure.json] [-p port] [-m max sessions] [-t idle seconds] [-s]");
+            return;
+        }
+
+        SelectorGameServer server;
+        WorldTemplate world;
+        try {
+            if(sharedWorld){
+                world = adventurePath == null ? SharedWorld.loadDefault() : SharedWorld.load(adventurePath);
+            }else{
+                world = adventurePath == null ? WorldTemplate.loadDefault() : WorldTemplate.load(adventurePath);
+            }
+            server = new SelectorGameServer(world, max, idle);
+            port = server.start(port);
+        } catch (Exception e) {
+            System.out.println("Error: the server could not be started: " + e);
+            return;
+        }
+        System.out.println("Serving on localhost:" + port + " from one selector thread, at most " + max + " sessions");
+        final SelectorGameServer running = server;
+        final WorldTemplate played = world;
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                running.shutdown(GameServer.DEFAULT_DRAIN_SECONDS);
+            } catch (InterruptedException e) {
+                return;
+            }
+            System.out.print(running);
+            System.out.print(played);
+        }));
+        try {
+            server.join();
+        } catch (InterruptedException e) {
+            return;
+        }
+    }
+
+    /**
+     * Gets the server details.
+     * @return a string containing the session, command and backpressure counts
+     */
+    public String toString(){
+        String str = "Selector game server with " + activeSessions.get() + " active sessions, " + acceptedSessions.get()
+                     + " accepted, " + rejectedSessions.get() + " rejected, " + commandCount.get()
+                     + " commands answered and " + backpressurePauses.get() + " backpressure pauses\n";
+        return str;
+    }
+}
@@ -0,0 +1,117 @@
+package adventure;
+
+/**
+ * One game being played: the adventure, the player playing it and the parser for their
+ * commands. Commands carry the session they were parsed for, so checking and carrying them
+ * out never reaches for global state and any number of sessions can run side by side.
+ * A session is used by one thread at a time.
+ */
+public class Session{
+    private Adventure adventure;
+    private Player player;
+    private Parser parser;
+
+    /**
+     * Creates a session for a player of an adventure, understanding the built-in verbs.
+     * @param adv the adventure being played, may be set later
+     * @param who the player playing it, may be set later
+     */
+    public Session(Adventure adv, Player who){
+        this(adv, who, new VerbRegistry());
+    }
+
+    /**
+     * Creates a session for a player of an adventure with a verb registry that may be shared
+     * with other sessions.
+     * @param adv the adventure being played, may be set later
+     * @param who the player playing it, may be set later
+     * @param verbs the verbs the session's parser understands
+     */
+    public Session(Adventure adv, Player who, VerbRegistry verbs){
+        adventure = adv;
+        player = who;
+        parser = new Parser(this, verbs);
+    }
+
+    /**
+     * Gets the adventure being played.
+     * @return the session's adventure
+     */
+    public Adventure getAdventure(){
+        return adventure;
+    }
+
+    /**
+     * Sets the adventure being played, when a game is loaded into the session.
+     * @param adv the session's adventure
+     */
+    public void setAdventure(Adventure adv){
+        adventure = adv;
+    }
+
+    /**
+     * Gets the player playing the adventure.
+     * @return the session's player
+     */
+    public Player getPlayer(){
+        return player;
+    }
+
+    /**
+     * Sets the player playing the adventure, when a game is loaded into the session.
+     * @param who the session's player
+     */
+    public void setPlayer(Player who){
+        player = who;
+    }
+
+    /**
+     * Gets the parser for this session's commands.
+     * @return the session's parser
+     */
+    public Parser getParser(){
+        return parser;
+    }
+
+    /**
+     * Parses, checks and carries out a line the player typed, appending the response or the
+     * reason the command was rejected to a buffer.
+     * @param line the line the player typed
+     * @param out buffer the response is appended to
+     * @return false if the player is quitting, true otherwise
+     */
+    public boolean respond(String line, StringBuilder out){
+        Command cmd = parser.parse(line);
+        ValidationResult result = cmd.validate();
+        if(!result.isValid()){
+            out.append(result.getMessage());
+            return true;
+        }
+        return adventure.parseCommand(cmd, out);
+    }
+
+    /**
+     * Parses, checks and carries out a line the player typed.
+     * @param line the line the player typed
+     * @return the response or the reason the command was rejected, null if the player is quitting
+     */
+    public String commandOutput(String line){
+        Command cmd = parser.parse(line);
+        ValidationResult result = cmd.validate();
+        if(!result.isValid()){
+            return result.getMessage();
+        }
+        return adventure.parseCommand(cmd);
+    }
+
+    /**
+     * Gets the session details.
+     * @return a string containing the player's name and current room
+     */
+    public String toString(){
+        String str = "Session for " + (player == null ? "no player" : "'" + player.getName() + "'")
+                     + (adventure == null || adventure.getCurrentRoom() == null ? ""
+                        : " in " + adventure.getCurrentRoom().getName()) + "\n";
+        return str;
+    }
+}
@@ -0,0 +1,77 @@
+package adventure;
+
+/**
+ * An adventure played by several players at once in the same world. Unlike a WorldTemplate,
+ * whose sessions each get a private copy of whatever they change, sessions of a shared world
+ * change the one set of rooms and items: an item taken by one player is gone for everyone.
+ * Rooms and the item list are guarded by striped WorldLocks, so take, toss and eat are
+ * atomic against other players.
+ */
+public class SharedWorld extends WorldTemplate{
+    private final WorldLocks locks;
+
+    /**
+     * Creates a shared world from a loaded adventure with the default number of lock stripes.
+     * @param adventure the adventure to be shared, which must not be played directly afterwards
+     */
+    public SharedWorld(Adventure adventure){
+        this(adventure, WorldLocks.DEFAULT_STRIPES);
+    }
+
+    /**
+     * Creates a shared world from a loaded adventure.
+     * @param adventure the adventure to be shared, which must not be played directly afterwards
+     * @param stripes number of locks the rooms are spread across
+     */
+    public SharedWorld(Adventure adventure, int stripes){
+        super(adventure);
+        locks = new WorldLocks(stripes);
+    }
+
+    /**
+     * Loads a shared world from an adventure file.
+     * @param filename path of the adventure .json file
+     * @return the shared world
+     * @throws Exception if the file cannot be read or the adventure has logic errors
+     */
+    public static SharedWorld load(String filename) throws Exception{
+        return new SharedWorld(readAdventure(filename));
+    }
+
+    /**
+     * Loads a shared world of the default adventure that is packaged with the game.
+     * @return the shared world
+     * @throws Exception if the default adventure cannot be read
+     */
+    public static SharedWorld loadDefault() throws Exception{
+        return new SharedWorld(readDefaultAdventure());
+    }
+
+    /**
+     * Creates a player's view of the shared world.
+     * @return an adventure starting in the start room that changes the shared rooms and items
+     */
+    @Override
+    public Adventure newAdventure(){
+        return new Adventure(getWorld(), locks);
+    }
+
+    /**
+     * Gets the locks guarding the world, with their contention counts.
+     * @return the world's locks
+     */
+    public WorldLocks getLocks(){
+        return locks;
+    }
+
+    /**
+     * Gets the shared world details.
+     * @return a string containing the number of rooms and items and the lock contention
+     */
+    public String toString(){
+        String str = "Shared world of " + getWorld().listAllRooms().size() + " rooms and "
+                     + getWorld().listAllItems().size() + " items from " + getWorld().getSource()
+                     + "\n" + locks.toString();
+        return str;
+    }
+}
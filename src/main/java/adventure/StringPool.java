@@ -0,0 +1,77 @@
+package adventure;
+import java.util.HashMap;
+
+/**
+ * Shares one instance of each distinct string read while loading an adventure. Names,
+ * directions and descriptions repeat a lot in big adventures, and without the pool every
+ * repeat is kept as its own copy. The pool is only needed while loading and can be dropped
+ * afterwards; the rooms and items keep the shared instances.
+ */
+public class StringPool{
+    private static final int STRING_OVERHEAD_BYTES = 40;
+    private HashMap<String, String> pool;
+    private int lookups;
+    private int shared;
+    private long bytesSaved;
+
+    /**
+     * Default constructor. Creates an empty pool.
+     */
+    public StringPool(){
+        pool = new HashMap<String, String>();
+    }
+
+    /**
+     * Gets the shared instance of a string, adding the string to the pool if it is new.
+     * @param str the string to be shared, may be null
+     * @return the pooled string equal to str, null if str is null
+     */
+    public String intern(String str){
+        if(str == null){
+            return null;
+        }
+        lookups++;
+        String existing = pool.putIfAbsent(str, str);
+        if(existing == null){
+            return str;
+        }
+        shared++;
+        bytesSaved += STRING_OVERHEAD_BYTES + str.length();
+        return existing;
+    }
+
+    /**
+     * Gets the number of distinct strings in the pool.
+     * @return number of pooled strings
+     */
+    public int size(){
+        return pool.size();
+    }
+
+    /**
+     * Gets the number of repeated strings that were replaced by a shared instance.
+     * @return number of strings that were shared
+     */
+    public int getSharedCount(){
+        return shared;
+    }
+
+    /**
+     * Gets an estimate of the heap saved by sharing strings, counting the object headers,
+     * the backing array and one byte per character of each copy that was dropped.
+     * @return estimated number of bytes saved
+     */
+    public long getBytesSaved(){
+        return bytesSaved;
+    }
+
+    /**
+     * Gets the pool details.
+     * @return a string containing how many strings were shared and the memory saved
+     */
+    public String toString(){
+        String str = "Shared " + shared + " of " + lookups + " strings (" + pool.size()
+                     + " distinct), saving about " + (bytesSaved + 1023) / 1024 + " KB\n";
+        return str;
+    }
+}
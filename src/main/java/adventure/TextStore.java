@@ -0,0 +1,9 @@
+package adventure;
+
+/**
+ * A place description text is kept outside the heap until it is needed.
+ * Rooms and items hold a reference number instead of the text itself.
+ */
+interface TextStore {
+    String getText(int ref);
+}
@@ -0,0 +1,103 @@
+package adventure;
+
+/**
+ * The outcome of checking a command. A rejected command carries the reason it was rejected
+ * and the words it was rejected for; the message shown to the player is only put together
+ * the first time it is asked for. Every accepted command shares the VALID result.
+ */
+public class ValidationResult{
+    public static final ValidationResult VALID = new ValidationResult(null, null, null, null, null);
+
+    private final Command.Problem problem;
+    private final String typed;
+    private final VerbHandler verb;
+    private final String noun;
+    private final String item;
+    private String message;
+
+    /**
+     * Creates a result for a rejected command.
+     * @param reason why the command was rejected, null if it was accepted
+     * @param typedAction the first word as the player typed it
+     * @param commandVerb the verb the first word names, null if it isn't one
+     * @param what the second word of the command, null if there is none
+     * @param itemName name of the item the verb can't be used on, null if that isn't the reason
+     */
+    ValidationResult(Command.Problem reason, String typedAction, VerbHandler commandVerb, String what, String itemName){
+        problem = reason;
+        typed = typedAction;
+        verb = commandVerb;
+        noun = what;
+        item = itemName;
+    }
+
+    /**
+     * Checks if the command was accepted.
+     * @return true if the command is valid, false if not
+     */
+    public boolean isValid(){
+        return problem == null;
+    }
+
+    /**
+     * Gets the reason the command was rejected.
+     * @return the error code, null if the command is valid
+     */
+    public Command.Problem getProblem(){
+        return problem;
+    }
+
+    /**
+     * Gets the message telling the player why their command was rejected.
+     * @return string with feedback as to why the command is invalid, null if it is valid
+     */
+    public String getMessage(){
+        if(message == null && problem != null){
+            message = formatMessage();
+        }
+        return message;
+    }
+
+    /**
+     * Puts together the message for the reason the command was rejected.
+     * @return string with feedback as to why the command is invalid
+     */
+    private String formatMessage(){
+        switch(problem){
+            case NO_COMMAND:
+                return "You must enter a command!";
+            case UNKNOWN_COMMAND:
+                return "Sorry, I don't recognize '" + typed + "'."
+                       + " Type 'help' if you need the instructions.\n";
+            case MISSING_DIRECTION:
+                return "You must enter a direction after 'go'.\n";
+            case MISSING_ROOM_ITEM:
+                return "You must enter an item in the room after 'take'.\n";
+            case MISSING_INVENTORY_ITEM:
+                return "You must enter an item in your inventory after '" + typed + "'.\n";
+            case UNKNOWN_TWO_WORD_COMMAND:
+                return "Sorry, I don't recognize '" + typed + "\n";
+            case NOT_IN_ROOM:
+                return noun + " is not an item in the room."
+                       + " Type 'items' for a list of items in the room.\n";
+            case BLOCKED_DIRECTION:
+                return "You cannot go " + noun + ".\n";
+            case BAD_DIRECTION:
+                return noun + " is not a valid direction.\n";
+            case NOT_IN_INVENTORY:
+                return noun + " is not an item in your inventory."
+                       + " Type 'inventory' for a list of items in your inventory.\n";
+            default:
+                return "You can't " + verb.getWord() + " the " + item + "!\n";
+        }
+    }
+
+    /**
+     * Gets the result details.
+     * @return a string containing the error code, or that the command is valid
+     */
+    public String toString(){
+        String str = "Validation result: " + (problem == null ? "valid" : problem.name()) + "\n";
+        return str;
+    }
+}
@@ -0,0 +1,235 @@
+package adventure;
+
+/**
+ * The verbs the game understands out of the box. Each one is the handler that checks and
+ * carries out its own commands.
+ */
+public enum Verb implements VerbHandler{
+    LOOK(true, true){
+        @Override
+        public Command.Problem check(Command cmd, Adventure adventure, Player player){
+            return checkRoomItem(cmd, adventure);
+        }
+
+        @Override
+        public boolean render(Command cmd, Adventure adventure, StringBuilder out){
+            if(cmd.hasSecondWord()){
+                out.append(adventure.lookCommandTwo(cmd.getNoun()));
+            }else{
+                out.append(adventure.lookCommandOne());
+            }
+            return true;
+        }
+    },
+    HELP(true, false){
+        @Override
+        public boolean render(Command cmd, Adventure adventure, StringBuilder out){
+            out.append(adventure.helpCommand());
+            return true;
+        }
+    },
+    INVENTORY(true, false){
+        @Override
+        public boolean render(Command cmd, Adventure adventure, StringBuilder out){
+            adventure.renderInventory(cmd.getSession().getPlayer(), out);
+            return true;
+        }
+    },
+    Q(true, false){
+        @Override
+        public boolean render(Command cmd, Adventure adventure, StringBuilder out){
+            return false;
+        }
+    },
+    QUIT(true, false){
+        @Override
+        public boolean render(Command cmd, Adventure adventure, StringBuilder out){
+            return false;
+        }
+    },
+    ITEMS(true, false){
+        @Override
+        public boolean render(Command cmd, Adventure adventure, StringBuilder out){
+            adventure.renderItems(adventure.getCurrentRoom(), out);
+            return true;
+        }
+    },
+    GO(false, true){
+        @Override
+        public Command.Problem getMissingNounProblem(){
+            return Command.Problem.MISSING_DIRECTION;
+        }
+
+        @Override
+        public Command.Problem check(Command cmd, Adventure adventure, Player player){
+            if(adventure.getCurrentRoom().getConnectedRoom(cmd.getNoun()) != null){
+                return null;
+            }
+            if(Direction.parse(cmd.getNoun()) != null){
+                return Command.Problem.BLOCKED_DIRECTION;
+            }
+            return Command.Problem.BAD_DIRECTION;
+        }
+
+        @Override
+        public boolean render(Command cmd, Adventure adventure, StringBuilder out){
+            adventure.renderGo(cmd.getSession().getPlayer(), cmd.getNoun(), out);
+            return true;
+        }
+    },
+    TAKE(false, true){
+        @Override
+        public Command.Problem getMissingNounProblem(){
+            return Command.Problem.MISSING_ROOM_ITEM;
+        }
+
+        @Override
+        public Command.Problem check(Command cmd, Adventure adventure, Player player){
+            return checkRoomItem(cmd, adventure);
+        }
+
+        @Override
+        public boolean render(Command cmd, Adventure adventure, StringBuilder out){
+            out.append(adventure.takeCommand(cmd.getSession().getPlayer(), cmd.getNoun()));
+            return true;
+        }
+    },
+    EAT(false, true, Inventory.Capability.EDIBLE){
+        @Override
+        public boolean render(Command cmd, Adventure adventure, StringBuilder out){
+            out.append(adventure.eatCommand(cmd.getSession().getPlayer(), cmd.getNoun()));
+            return true;
+        }
+    },
+    WEAR(false, true, Inventory.Capability.WEARABLE){
+        @Override
+        public boolean render(Command cmd, Adventure adventure, StringBuilder out){
+            out.append(adventure.wearCommand(cmd.getSession().getPlayer(), cmd.getNoun()));
+            return true;
+        }
+    },
+    TOSS(false, true, Inventory.Capability.TOSSABLE){
+        @Override
+        public boolean render(Command cmd, Adventure adventure, StringBuilder out){
+            out.append(adventure.tossCommand(cmd.getSession().getPlayer(), cmd.getNoun()));
+            return true;
+        }
+    },
+    READ(false, true, Inventory.Capability.READABLE){
+        @Override
+        public boolean render(Command cmd, Adventure adventure, StringBuilder out){
+            out.append(adventure.readCommand(cmd.getSession().getPlayer(), cmd.getNoun()));
+            return true;
+        }
+    };
+
+    private final String word;
+    private final boolean oneWord;
+    private final boolean twoWord;
+    private final Inventory.Capability capability;
+
+    /**
+     * Creates a verb.
+     * @param alone true if the verb is a command on its own
+     * @param withNoun true if the verb takes a second word
+     */
+    Verb(boolean alone, boolean withNoun){
+        this(alone, withNoun, null);
+    }
+
+    /**
+     * Creates a verb that acts on an item in the inventory.
+     * @param alone true if the verb is a command on its own
+     * @param withNoun true if the verb takes a second word
+     * @param use what the item must be usable for, null if the verb doesn't act on inventory items
+     */
+    Verb(boolean alone, boolean withNoun, Inventory.Capability use){
+        word = name().toLowerCase();
+        oneWord = alone;
+        twoWord = withNoun;
+        capability = use;
+    }
+
+    /**
+     * Carries out a valid command and returns what it printed.
+     * @param cmd the command to be carried out
+     * @param adventure the adventure being played
+     * @return a string containing what the game should print, null if quitting
+     */
+    @Override
+    public String execute(Command cmd, Adventure adventure){
+        StringBuilder out = new StringBuilder();
+        if(!render(cmd, adventure, out)){
+            return null;
+        }
+        return out.toString();
+    }
+
+    /**
+     * Gets the word the player types for this verb.
+     * @return the verb in lower case
+     */
+    @Override
+    public String getWord(){
+        return word;
+    }
+
+    /**
+     * Checks if the verb is a command on its own.
+     * @return true if the verb can be used without a second word
+     */
+    @Override
+    public boolean isOneWord(){
+        return oneWord;
+    }
+
+    /**
+     * Checks if the verb takes a second word.
+     * @return true if the verb can be followed by a second word
+     */
+    @Override
+    public boolean isTwoWord(){
+        return twoWord;
+    }
+
+    /**
+     * Gets what an inventory item must be usable for to be the second word of this verb.
+     * @return the capability the verb needs, null if the verb doesn't act on inventory items
+     */
+    public Inventory.Capability getCapability(){
+        return capability;
+    }
+
+    /**
+     * Checks that the second word of a command names an item in the inventory that this
+     * verb can be used on. Used by the verbs that act on inventory items.
+     * @param cmd the command being checked
+     * @param adventure the adventure being played
+     * @param player the player playing the adventure
+     * @return the reason the command is invalid, null if it is valid
+     */
+    @Override
+    public Command.Problem check(Command cmd, Adventure adventure, Player player){
+        Item item = player.getInventoryIndex().find(cmd.getNoun());
+        if(item == null){
+            return Command.Problem.NOT_IN_INVENTORY;
+        }else if(capability == null || !capability.appliesTo(item)){
+            cmd.setProblemItem(item.getName());
+            return Command.Problem.CANNOT_USE;
+        }
+        return null;
+    }
+
+    /**
+     * Checks that the second word of a command names an item in the current room.
+     * @param cmd the command being checked
+     * @param adventure the adventure being played
+     * @return NOT_IN_ROOM if there is no such item, null if there is
+     */
+    static Command.Problem checkRoomItem(Command cmd, Adventure adventure){
+        if(adventure.findRoomItem(cmd.getNoun()) == null){
+            return Command.Problem.NOT_IN_ROOM;
+        }
+        return null;
+    }
+}
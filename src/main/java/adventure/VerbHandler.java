@@ -0,0 +1,71 @@
+package adventure;
+
+/**
+ * Checks and carries out every command that starts with one verb. A command is resolved
+ * to its handler once when it is parsed, so checking and running it is a single call on
+ * the handler. New verbs are added by registering a handler with a VerbRegistry.
+ */
+public interface VerbHandler{
+
+    /**
+     * Gets the word the player types for this verb.
+     * @return the verb in lower case
+     */
+    String getWord();
+
+    /**
+     * Checks if the verb is a command on its own.
+     * @return true if the verb can be used without a second word
+     */
+    boolean isOneWord();
+
+    /**
+     * Checks if the verb takes a second word.
+     * @return true if the verb can be followed by a second word
+     */
+    boolean isTwoWord();
+
+    /**
+     * Gets the reason to give when a verb that needs a second word is typed on its own.
+     * @return the problem for a missing second word
+     */
+    default Command.Problem getMissingNounProblem(){
+        return Command.Problem.MISSING_INVENTORY_ITEM;
+    }
+
+    /**
+     * Checks a command with a second word against the room and inventory.
+     * @param cmd the command being checked
+     * @param adventure the adventure being played
+     * @param player the player playing the adventure
+     * @return the reason the command is invalid, null if it is valid
+     */
+    default Command.Problem check(Command cmd, Adventure adventure, Player player){
+        return null;
+    }
+
+    /**
+     * Carries out a valid command.
+     * @param cmd the command to be carried out
+     * @param adventure the adventure being played
+     * @return a string containing what the game should print, null if quitting
+     */
+    String execute(Command cmd, Adventure adventure);
+
+    /**
+     * Carries out a valid command, appending what the game should print to a buffer
+     * instead of returning it.
+     * @param cmd the command to be carried out
+     * @param adventure the adventure being played
+     * @param out buffer the output is appended to
+     * @return false if quitting, true otherwise
+     */
+    default boolean render(Command cmd, Adventure adventure, StringBuilder out){
+        String str = execute(cmd, adventure);
+        if(str == null){
+            return false;
+        }
+        out.append(str);
+        return true;
+    }
+}
@@ -0,0 +1,134 @@
+package adventure;
+import java.util.ArrayList;
+
+/**
+ * Maps the first word of a command to the handler for it. Words are hashed on case-folded
+ * characters, so a lookup reads the typed word in place without copying it, changing its
+ * case or matching a pattern. A new registry holds every built-in verb; more can be
+ * registered before it is used to parse commands.
+ */
+public class VerbRegistry{
+    private static final VerbRegistry BUILT_IN = new VerbRegistry();
+    private VerbHandler[] table;
+    private int count;
+
+    /**
+     * Default constructor. Creates a registry holding every built-in verb.
+     */
+    public VerbRegistry(){
+        table = new VerbHandler[32];
+        for(Verb verb : Verb.values()){
+            register(verb);
+        }
+    }
+
+    /**
+     * Gets the built-in verb a word names, in any case.
+     * @param word the word to look up
+     * @return the matching built-in verb, null if the word isn't one
+     */
+    public static VerbHandler lookupBuiltIn(String word){
+        return BUILT_IN.lookup(word);
+    }
+
+    /**
+     * Adds a verb, replacing any verb already registered under the same word.
+     * @param handler the handler for the new verb
+     */
+    public void register(VerbHandler handler){
+        String word = handler.getWord();
+        int slot = findSlot(word, 0, word.length());
+        if(table[slot] == null){
+            count++;
+        }
+        table[slot] = handler;
+        if(count * 2 > table.length){
+            VerbHandler[] old = table;
+            table = new VerbHandler[old.length * 2];
+            for(VerbHandler existing : old){
+                if(existing != null){
+                    table[findSlot(existing.getWord(), 0, existing.getWord().length())] = existing;
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the verb a whole word names, in any case.
+     * @param word the word to look up
+     * @return the matching handler, null if the word isn't a verb
+     */
+    public VerbHandler lookup(String word){
+        return lookup(word, 0, word.length());
+    }
+
+    /**
+     * Gets the verb named by part of a line, in any case.
+     * @param line the text holding the word
+     * @param start index of the first character of the word
+     * @param end index after the last character of the word
+     * @return the matching handler, null if the word isn't a verb
+     */
+    public VerbHandler lookup(String line, int start, int end){
+        return table[findSlot(line, start, end)];
+    }
+
+    /**
+     * Gets every registered verb.
+     * @return list of the registered handlers, in no particular order
+     */
+    public ArrayList<VerbHandler> listVerbs(){
+        ArrayList<VerbHandler> verbs = new ArrayList<VerbHandler>(count);
+        for(VerbHandler handler : table){
+            if(handler != null){
+                verbs.add(handler);
+            }
+        }
+        return verbs;
+    }
+
+    /**
+     * Finds the slot a word is registered in, or the empty slot it would be put in.
+     * @param line the text holding the word
+     * @param start index of the first character of the word
+     * @param end index after the last character of the word
+     * @return index of the slot for the word
+     */
+    private int findSlot(String line, int start, int end){
+        int length = end - start;
+        int mask = table.length - 1;
+        int slot = hash(line, start, end) & mask;
+        while(table[slot] != null){
+            String word = table[slot].getWord();
+            if(word.length() == length && word.regionMatches(true, 0, line, start, length)){
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Hashes part of a line the same way whatever its case.
+     * @param line the text holding the word
+     * @param start index of the first character of the word
+     * @param end index after the last character of the word
+     * @return hash of the case-folded word
+     */
+    private static int hash(String line, int start, int end){
+        int h = 0;
+        for(int i = start; i < end; i++){
+            h = 31 * h + Character.toLowerCase(Character.toUpperCase(line.charAt(i)));
+        }
+        return h ^ (h >>> 7);
+    }
+
+    /**
+     * Gets the registry details.
+     * @return a string containing the number of registered verbs
+     */
+    public String toString(){
+        String str = "Verb registry with " + count + " verbs\n";
+        return str;
+    }
+}
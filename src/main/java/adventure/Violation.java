@@ -0,0 +1,100 @@
+package adventure;
+
+/**
+ * Represents one logic error found while validating an adventure.
+ */
+public class Violation implements java.io.Serializable{
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The rules an adventure has to follow.
+     */
+    public enum Rule{
+        BAD_EXIT_SYNTAX("Room has entrance not matching proper syntax."),
+        NO_EXITS("Room has no exits."),
+        DANGLING_ENTRANCE("Entrance ID does not correspond to any room."),
+        NON_RECIPROCAL_EXIT("Room exits do not match across rooms."),
+        DANGLING_LOOT("Loot ID does not correspond to any item.");
+
+        private final String message;
+
+        Rule(String ruleMessage){
+            message = ruleMessage;
+        }
+
+        /**
+         * Gets the description of what breaks the rule.
+         * @return string describing the rule violation
+         */
+        public String getMessage(){
+            return message;
+        }
+    }
+
+    private int roomID;
+    private String direction;
+    private int targetID;
+    private Rule rule;
+
+    /**
+     * Creates a violation.
+     * @param room ID of the room the violation was found in
+     * @param dir direction of the exit involved, null if no exit is involved
+     * @param target ID of the room or item the exit or loot refers to
+     * @param brokenRule the rule that was broken
+     */
+    public Violation(int room, String dir, int target, Rule brokenRule){
+        roomID = room;
+        direction = dir;
+        targetID = target;
+        rule = brokenRule;
+    }
+
+    /**
+     * Gets the ID of the room the violation was found in.
+     * @return room ID
+     */
+    public int getRoomID(){
+        return roomID;
+    }
+
+    /**
+     * Gets the direction of the exit involved.
+     * @return the exit direction, null if no exit is involved
+     */
+    public String getDirection(){
+        return direction;
+    }
+
+    /**
+     * Gets the ID of the room or item the broken exit or loot entry refers to.
+     * @return the target ID
+     */
+    public int getTargetID(){
+        return targetID;
+    }
+
+    /**
+     * Gets the rule that was broken.
+     * @return the broken rule
+     */
+    public Rule getRule(){
+        return rule;
+    }
+
+    /**
+     * Gets a description of the violation.
+     * @return a string containing the room, direction and broken rule
+     */
+    public String toString(){
+        String str = "Room " + roomID;
+        if(direction != null){
+            str += " exit " + direction;
+        }
+        str += ": " + rule.getMessage();
+        if(rule == Rule.DANGLING_ENTRANCE || rule == Rule.DANGLING_LOOT){
+            str += " (ID " + targetID + ")";
+        }
+        return str;
+    }
+}
@@ -0,0 +1,127 @@
+package adventure;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Striped locks guarding the rooms and the item list of an adventure played by several
+ * players at once. A room is guarded by the stripe its ID falls in, so players in different
+ * rooms rarely wait for each other, while the memory used stays fixed however big the
+ * adventure is. Every acquisition is counted, along with how many had to wait and for how long.
+ * A thread never holds more than one of these locks at a time, so they can't deadlock.
+ */
+public class WorldLocks{
+    public static final int DEFAULT_STRIPES = 64;
+    private final ReentrantLock[] stripes;
+    private final ReentrantLock itemsLock;
+    private final int mask;
+    private final LongAdder acquisitions;
+    private final LongAdder contended;
+    private final LongAdder waitNanos;
+
+    /**
+     * Creates a set of striped locks.
+     * @param count number of room stripes, rounded up to a power of two
+     */
+    public WorldLocks(int count){
+        int size = count <= 1 ? 1 : Integer.highestOneBit(count - 1) << 1;
+        stripes = new ReentrantLock[size];
+        for(int i = 0; i < size; i++){
+            stripes[i] = new ReentrantLock();
+        }
+        itemsLock = new ReentrantLock();
+        mask = size - 1;
+        acquisitions = new LongAdder();
+        contended = new LongAdder();
+        waitNanos = new LongAdder();
+    }
+
+    /**
+     * Locks the stripe guarding a room's items, waiting if another player holds it.
+     * @param room the room about to be read or changed
+     */
+    public void lockRoom(Room room){
+        acquire(stripes[room.getID() & mask]);
+    }
+
+    /**
+     * Unlocks the stripe guarding a room's items.
+     * @param room the room locked by lockRoom
+     */
+    public void unlockRoom(Room room){
+        stripes[room.getID() & mask].unlock();
+    }
+
+    /**
+     * Locks the adventure's list of all items, waiting if another player holds it.
+     */
+    public void lockItems(){
+        acquire(itemsLock);
+    }
+
+    /**
+     * Unlocks the adventure's list of all items.
+     */
+    public void unlockItems(){
+        itemsLock.unlock();
+    }
+
+    /**
+     * Takes a lock, counting the wait if it is already held.
+     * @param lock the lock to be taken
+     */
+    private void acquire(ReentrantLock lock){
+        acquisitions.increment();
+        if(lock.tryLock()){
+            return;
+        }
+        long start = System.nanoTime();
+        lock.lock();
+        contended.increment();
+        waitNanos.add(System.nanoTime() - start);
+    }
+
+    /**
+     * Gets the number of room stripes.
+     * @return number of room locks
+     */
+    public int getStripeCount(){
+        return stripes.length;
+    }
+
+    /**
+     * Gets the number of times a lock was taken.
+     * @return number of acquisitions
+     */
+    public long getAcquisitions(){
+        return acquisitions.sum();
+    }
+
+    /**
+     * Gets the number of times a lock was already held and had to be waited for.
+     * @return number of contended acquisitions
+     */
+    public long getContended(){
+        return contended.sum();
+    }
+
+    /**
+     * Gets the total time spent waiting for locks held by other players.
+     * @return nanoseconds spent waiting
+     */
+    public long getWaitNanos(){
+        return waitNanos.sum();
+    }
+
+    /**
+     * Gets the lock details.
+     * @return a string containing the stripe count and the contention counts
+     */
+    public String toString(){
+        long taken = acquisitions.sum();
+        long waited = contended.sum();
+        String str = "World locks with " + stripes.length + " stripes: " + taken + " acquisitions, " + waited
+                     + " contended (" + String.format("%.2f", taken == 0 ? 0.0 : waited * 100.0 / taken)
+                     + "%), " + waitNanos.sum() / 1000 + " us waiting\n";
+        return str;
+    }
+}
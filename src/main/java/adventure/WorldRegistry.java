@@ -0,0 +1,115 @@
+package adventure;
+import java.util.ArrayList;
+
+/**
+ * Indexes every room and item in an adventure by ID so they can be found
+ * without scanning the full lists.
+ */
+public class WorldRegistry implements java.io.Serializable{
+    private static final long serialVersionUID = 1L;
+    private IntMap<Room> roomIndex;
+    private IntMap<Item> itemIndex;
+
+    /**
+     * Default constructor. Creates an empty registry.
+     */
+    public WorldRegistry(){
+        roomIndex = new IntMap<Room>();
+        itemIndex = new IntMap<Item>();
+    }
+
+    /**
+     * Creates an empty registry sized for the given number of rooms and items.
+     * @param roomCount expected number of rooms
+     * @param itemCount expected number of items
+     */
+    public WorldRegistry(int roomCount, int itemCount){
+        roomIndex = new IntMap<Room>(roomCount);
+        itemIndex = new IntMap<Item>(itemCount);
+    }
+
+    /**
+     * Adds a room to the registry under its ID.
+     * @param room the room to be indexed
+     */
+    public void addRoom(Room room){
+        roomIndex.put(room.getID(), room);
+    }
+
+    /**
+     * Adds an item to the registry under its ID.
+     * @param item the item to be indexed
+     */
+    public void addItem(Item item){
+        itemIndex.put(item.getID(), item);
+    }
+
+    /**
+     * Gets the room with the given ID.
+     * @param id ID of the room
+     * @return the room with the given ID, null if there is none
+     */
+    public Room getRoom(int id){
+        return roomIndex.get(id);
+    }
+
+    /**
+     * Gets the item with the given ID.
+     * @param id ID of the item
+     * @return the item with the given ID, null if there is none
+     */
+    public Item getItem(int id){
+        return itemIndex.get(id);
+    }
+
+    /**
+     * Checks if a room with the given ID exists.
+     * @param id ID of the room
+     * @return true if there is a room with the ID, false if not
+     */
+    public boolean hasRoom(int id){
+        return roomIndex.containsKey(id);
+    }
+
+    /**
+     * Checks if an item with the given ID exists.
+     * @param id ID of the item
+     * @return true if there is an item with the ID, false if not
+     */
+    public boolean hasItem(int id){
+        return itemIndex.containsKey(id);
+    }
+
+    /**
+     * Gets every item in the registry, including items that have been eaten.
+     * @return list of all indexed items, in no particular order
+     */
+    public ArrayList<Item> listItems(){
+        return itemIndex.values();
+    }
+
+    /**
+     * Gets the number of rooms in the registry.
+     * @return number of indexed rooms
+     */
+    public int roomCount(){
+        return roomIndex.size();
+    }
+
+    /**
+     * Gets the number of items in the registry.
+     * @return number of indexed items
+     */
+    public int itemCount(){
+        return itemIndex.size();
+    }
+
+    /**
+     * Gets the registry details.
+     * @return a string containing the number of indexed rooms and items
+     */
+    public String toString(){
+        String str = "World registry with " + roomCount() + " rooms and " + itemCount() + " items\n";
+        return str;
+    }
+}
@@ -0,0 +1,114 @@
+package adventure;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.InputStreamReader;
+import java.io.Reader;
+
+/**
+ * An adventure loaded once and shared, unchanged, by every session playing it. Each session
+ * gets a copy-on-write Adventure over the template, so it only holds the rooms and items it
+ * has changed, plus its own player and inventory.
+ */
+public class WorldTemplate{
+    private static final String DEFAULT_ADVENTURE = "adventure.json";
+    private final Adventure world;
+
+    /**
+     * Creates a template from a loaded adventure, which must not be played or changed afterwards.
+     * @param adventure the adventure to be shared
+     */
+    public WorldTemplate(Adventure adventure){
+        world = adventure;
+        StringBuilder scratch = new StringBuilder();
+        for(Room room : world.listAllRooms()){
+            room.findItem("");
+            room.renderView(scratch);
+            scratch.setLength(0);
+        }
+    }
+
+    /**
+     * Loads a template from an adventure file.
+     * @param filename path of the adventure .json file
+     * @return the template for the adventure
+     * @throws Exception if the file cannot be read or the adventure has logic errors
+     */
+    public static WorldTemplate load(String filename) throws Exception{
+        return new WorldTemplate(readAdventure(filename));
+    }
+
+    /**
+     * Loads a template of the default adventure that is packaged with the game.
+     * @return the template for the default adventure
+     * @throws Exception if the default adventure cannot be read
+     */
+    public static WorldTemplate loadDefault() throws Exception{
+        return new WorldTemplate(readDefaultAdventure());
+    }
+
+    /**
+     * Reads an adventure file.
+     * @param filename path of the adventure .json file
+     * @return the loaded adventure
+     * @throws Exception if the file cannot be read or the adventure has logic errors
+     */
+    static Adventure readAdventure(String filename) throws Exception{
+        try (Reader reader = new BufferedReader(new FileReader(filename))){
+            Adventure adventure = new AdventureLoader().load(reader);
+            adventure.setSource(new File(filename).getAbsolutePath());
+            return adventure;
+        }
+    }
+
+    /**
+     * Reads the default adventure that is packaged with the game.
+     * @return the loaded adventure
+     * @throws Exception if the default adventure cannot be read
+     */
+    static Adventure readDefaultAdventure() throws Exception{
+        try (Reader reader = new BufferedReader(new InputStreamReader(WorldTemplate.class.getClassLoader().getResourceAsStream(DEFAULT_ADVENTURE)))){
+            Adventure adventure = new AdventureLoader().load(reader);
+            adventure.setSource(Game.DEFAULT_SOURCE);
+            return adventure;
+        }
+    }
+
+    /**
+     * Gets the shared adventure. It must only be read.
+     * @return the template's adventure
+     */
+    public Adventure getWorld(){
+        return world;
+    }
+
+    /**
+     * Creates an adventure for one session that shares this template's rooms and items.
+     * @return a copy-on-write adventure starting in the template's start room
+     */
+    public Adventure newAdventure(){
+        return new Adventure(world);
+    }
+
+    /**
+     * Creates a session for a new player of the adventure.
+     * @param verbs the verbs the session understands, which may be shared between sessions
+     * @return a session standing in the start room with an empty inventory
+     */
+    public Session newSession(VerbRegistry verbs){
+        Adventure adventure = newAdventure();
+        Player player = new Player();
+        player.setCurrentRoom(adventure.getCurrentRoom());
+        return new Session(adventure, player, verbs);
+    }
+
+    /**
+     * Gets the template details.
+     * @return a string containing the number of rooms and items and the adventure's source
+     */
+    public String toString(){
+        String str = "World template of " + world.listAllRooms().size() + " rooms and "
+                     + world.listAllItems().size() + " items from " + world.getSource() + "\n";
+        return str;
+    }
+}
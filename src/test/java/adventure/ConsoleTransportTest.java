@@ -0,0 +1,33 @@
+package adventure;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import org.junit.Test;
+
+/**
+ * METHOD CORRECT BEHAVIOUR ASSUMPTION
+ * readLine() will only flush the output when the next line hasn't
+ * already arrived, so piped commands are answered in one write.
+ */
+
+public class ConsoleTransportTest{
+
+@Test
+public void testFlushOnlyWhenWaiting(){
+    System.out.println("Testing piped lines are read without flushing until the input runs out");
+    ByteArrayOutputStream written = new ByteArrayOutputStream();
+    ConsoleTransport console = new ConsoleTransport(new ByteArrayInputStream("look\nitems\n".getBytes()), written);
+    console.prompt();
+    assertEquals("look", console.readLine());
+    console.println("first");
+    console.prompt();
+    assertEquals(0, written.size());
+    assertEquals("items", console.readLine());
+    console.print("second");
+    assertNull(console.readLine());
+    assertEquals("> first" + System.lineSeparator() + "> second", written.toString());
+    console.close();
+}
+}
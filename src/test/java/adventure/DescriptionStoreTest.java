@@ -0,0 +1,61 @@
+package adventure;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.assertNull;
+import java.util.ArrayList;
+import org.junit.Test;
+import org.junit.Before;
+import org.junit.After;
+
+/**
+ * METHOD CORRECT BEHAVIOUR ASSUMPTION
+ * getText() will always return the text that add() stored,
+ * no matter how many other texts were read since.
+ */
+
+public class DescriptionStoreTest{
+    private DescriptionStore storeTest;
+
+@Before
+public void setup() throws Exception{
+    storeTest = new DescriptionStore(2);
+}
+
+@After
+public void teardown() throws Exception{
+    storeTest.close();
+}
+
+@Test
+public void testAddAndGetText() throws Exception{
+    System.out.println("Testing texts read back from the side file past the cache size");
+    ArrayList<Integer> refs = new ArrayList<Integer>();
+    for(int i = 0; i < 100; i++){
+        refs.add(storeTest.add("Description number " + i + " é"));
+    }
+    for(int i = 99; i >= 0; i--){
+        assertEquals("Description number " + i + " é", storeTest.getText(refs.get(i)));
+    }
+    assertEquals(100, storeTest.size());
+    assertTrue(storeTest.cachedCount() <= 2);
+    assertNull(storeTest.getText(storeTest.add(null)));
+}
+
+@Test
+public void testLoadWithDescriptionStore() throws Exception{
+    System.out.println("Testing default adventure loaded with descriptions kept in a store");
+    Game myGame = new Game();
+    Adventure plain = myGame.loadDefaultAdventure();
+    myGame.setDescriptionCache(2);
+    Adventure stored = myGame.loadDefaultAdventure();
+    for(Room room : plain.listAllRooms()){
+        Room other = stored.getRegistry().getRoom(room.getID());
+        assertEquals(room.getShortDescription(), other.getShortDescription());
+        assertEquals(room.getLongDescription(), other.getLongDescription());
+    }
+    for(Item item : plain.listAllItems()){
+        assertEquals(item.getLongDescription(), stored.getRegistry().getItem(item.getID()).getLongDescription());
+    }
+}
+}
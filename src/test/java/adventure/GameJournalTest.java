@@ -0,0 +1,108 @@
+package adventure;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import java.io.File;
+import java.io.RandomAccessFile;
+import org.junit.Test;
+import org.junit.Before;
+import org.junit.After;
+
+/**
+ * METHOD CORRECT BEHAVIOUR ASSUMPTION
+ * recover() will always bring a crashed game back to its last complete
+ * journaled command, and will never replay a torn entry or go past an entry
+ * whose effects don't match what replaying it does.
+ */
+
+public class GameJournalTest{
+    private Game myGame;
+    private GameJournal journal;
+    private String basePath;
+
+@Before
+public void setup() throws Exception{
+    myGame = new Game();
+    myGame.loadDefaultAdventure();
+    File base = File.createTempFile("adventure", "");
+    base.delete();
+    basePath = base.getPath();
+    journal = new GameJournal(basePath, GameJournal.DEFAULT_SNAPSHOT_INTERVAL);
+    journal.start(myGame.getSession().getAdventure(), myGame.getSession().getPlayer());
+}
+
+@After
+public void teardown(){
+    new File(basePath + ".snapshot").delete();
+    new File(basePath + ".journal").delete();
+}
+
+/**
+ * Runs commands in the game and journals each one, as the console game does.
+ * @param commands the commands to be run
+ * @throws Exception if the journal cannot be written
+ */
+private void play(String... commands) throws Exception{
+    for(String cmd : commands){
+        myGame.commandOutput(cmd);
+        journal.record(cmd, myGame.getSession().getAdventure(), myGame.getSession().getPlayer());
+    }
+}
+
+@Test
+public void testRecoverAfterCrash() throws Exception{
+    System.out.println("Testing a crashed game is replayed to its last journaled command");
+    play("take photo", "go n", "take pen", "go e");
+    assertTrue(GameJournal.hasSession(basePath));
+
+    Game recovered = new Game();
+    assertEquals(4, new GameJournal(basePath, GameJournal.DEFAULT_SNAPSHOT_INTERVAL).recover(recovered));
+    assertEquals(myGame.getSession().getAdventure().getCurrentRoom().getID(),
+                 recovered.getSession().getAdventure().getCurrentRoom().getID());
+    assertEquals(2, recovered.getSession().getPlayer().getInventory().size());
+    assertEquals("PEN", recovered.getSession().getPlayer().getInventory().get(1).getName());
+}
+
+@Test
+public void testTornEntryIsNotReplayed() throws Exception{
+    System.out.println("Testing an entry that fails its checksum is dropped from the journal");
+    play("take photo", "go n", "take pen");
+    File journalFile = new File(basePath + ".journal");
+    long length = journalFile.length();
+    try (RandomAccessFile file = new RandomAccessFile(journalFile, "rw")){
+        file.setLength(length - 2);
+        file.seek(length - 3);
+        file.write(0x7F);
+    }
+
+    Game recovered = new Game();
+    GameJournal reopened = new GameJournal(basePath, GameJournal.DEFAULT_SNAPSHOT_INTERVAL);
+    assertEquals(2, reopened.recover(recovered));
+    assertEquals(1, recovered.getSession().getPlayer().getInventory().size());
+    assertTrue(journalFile.length() < length - 2);
+
+    recovered.commandOutput("take pen");
+    reopened.record("take pen", recovered.getSession().getAdventure(), recovered.getSession().getPlayer());
+    assertEquals(3, new GameJournal(basePath, GameJournal.DEFAULT_SNAPSHOT_INTERVAL).recover(new Game()));
+}
+
+@Test
+public void testReplayStopsAtMismatch() throws Exception{
+    System.out.println("Testing replay stops at an entry whose effects don't match");
+    play("take photo", "go n");
+    int roomID = myGame.getSession().getAdventure().getCurrentRoom().getID();
+    long matchingLength = new File(basePath + ".journal").length();
+    journal.record("take pen", myGame.getSession().getAdventure(), myGame.getSession().getPlayer());
+    play("go e");
+
+    Game recovered = new Game();
+    assertEquals(2, new GameJournal(basePath, GameJournal.DEFAULT_SNAPSHOT_INTERVAL).recover(recovered));
+    assertEquals(roomID, recovered.getSession().getAdventure().getCurrentRoom().getID());
+    assertEquals(1, recovered.getSession().getPlayer().getInventory().size());
+    assertEquals(matchingLength, new File(basePath + ".journal").length());
+
+    Game again = new Game();
+    assertEquals(2, new GameJournal(basePath, GameJournal.DEFAULT_SNAPSHOT_INTERVAL).recover(again));
+    assertEquals(1, again.getSession().getPlayer().getInventory().size());
+}
+}
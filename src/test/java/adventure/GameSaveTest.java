@@ -0,0 +1,123 @@
+package adventure;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.assertFalse;
+import java.io.File;
+import java.util.ArrayList;
+import org.junit.Test;
+import org.junit.Before;
+import org.junit.After;
+
+/**
+ * METHOD CORRECT BEHAVIOUR ASSUMPTION
+ * loadSave() will always restore the player's room, inventory,
+ * equipped items and the items left in each room by saveGame().
+ */
+
+public class GameSaveTest{
+    private Game myGame;
+    private File saveFile;
+
+@Before
+public void setup() throws Exception{
+    myGame = new Game();
+    myGame.loadDefaultAdventure();
+    saveFile = File.createTempFile("adventure", ".sav");
+}
+
+@After
+public void teardown(){
+    saveFile.delete();
+}
+
+@Test
+public void testSaveAndLoadRestoresChanges() throws Exception{
+    System.out.println("Testing binary save restores room, inventory and equipped items");
+    for(String cmd : new String[]{"take photo", "go n", "take pen", "go e", "take spacesuit",
+                                  "wear spacesuit", "go w", "toss pen"}){
+        myGame.commandOutput(cmd);
+    }
+    myGame.getSession().getPlayer().setName("Ripley");
+    assertTrue(myGame.saveGame(saveFile.getPath()));
+    assertTrue(GameSave.isGameSave(saveFile.getPath()));
+
+    Game loaded = new Game();
+    assertTrue(loaded.loadSave(saveFile.getPath()));
+    assertEquals("Ripley", loaded.getSession().getPlayer().getName());
+    assertEquals(101, loaded.getSession().getAdventure().getCurrentRoom().getID());
+    assertEquals(2, loaded.getSession().getPlayer().getInventory().size());
+    assertEquals("SPACESUIT (Equipped)", loaded.getSession().getPlayer().getInventory().get(1).getName());
+    assertEquals("PEN", loaded.getSession().getAdventure().getCurrentRoom().listItems().get(0).getName());
+    assertEquals(0, loaded.getSession().getAdventure().getRegistry().getRoom(105).listItems().size());
+}
+
+@Test
+public void testSaveOfEatenItem() throws Exception{
+    System.out.println("Testing binary save keeps eaten items out of the game");
+    for(String cmd : new String[]{"go n", "go n", "take food", "eat food"}){
+        myGame.commandOutput(cmd);
+    }
+    assertTrue(myGame.saveGame(saveFile.getPath()));
+
+    Game loaded = new Game();
+    assertTrue(loaded.loadSave(saveFile.getPath()));
+    assertEquals(7, loaded.getSession().getAdventure().listAllItems().size());
+    assertEquals(0, loaded.getSession().getAdventure().getCurrentRoom().listItems().size());
+    assertFalse(loaded.getSession().getPlayer().getInventory().size() > 0);
+}
+
+@Test
+public void testSnapshotResumesGame() throws Exception{
+    System.out.println("Testing mapped snapshot resumes rooms, items and descriptions");
+    File snapFile = File.createTempFile("adventure", MappedSnapshot.EXTENSION);
+    for(String cmd : new String[]{"take photo", "go n", "take pen", "go e", "take spacesuit",
+                                  "wear spacesuit", "go w", "toss pen"}){
+        myGame.commandOutput(cmd);
+    }
+    String description = myGame.getSession().getAdventure().getCurrentRoom().getLongDescription();
+    assertTrue(myGame.saveGame(snapFile.getPath()));
+    assertTrue(MappedSnapshot.isSnapshot(snapFile.getPath()));
+
+    Game loaded = new Game();
+    assertTrue(loaded.loadSave(snapFile.getPath()));
+    snapFile.delete();
+    assertEquals(101, loaded.getSession().getAdventure().getCurrentRoom().getID());
+    assertEquals(description, loaded.getSession().getAdventure().getCurrentRoom().getLongDescription());
+    assertEquals(2, loaded.getSession().getPlayer().getInventory().size());
+    assertEquals("SPACESUIT (Equipped)", loaded.getSession().getPlayer().getInventory().get(1).getName());
+    assertEquals("PEN", loaded.getSession().getAdventure().getCurrentRoom().listItems().get(0).getName());
+    assertEquals(101, loaded.getSession().getAdventure().getCurrentRoom().getConnectedRoom("S").getConnectedRoom("N").getID());
+}
+
+@Test
+public void testSnapshotSavedOverItself() throws Exception{
+    System.out.println("Testing a resumed snapshot can be saved over the file it was resumed from");
+    File snapFile = File.createTempFile("adventure", MappedSnapshot.EXTENSION);
+    ArrayList<String> descriptions = new ArrayList<String>();
+    for(Room room : myGame.getSession().getAdventure().listAllRooms()){
+        descriptions.add(room.getLongDescription());
+    }
+    assertTrue(myGame.saveGame(snapFile.getPath()));
+
+    Game loaded = new Game();
+    assertTrue(loaded.loadSave(snapFile.getPath()));
+    loaded.getSession().getPlayer().setName("A much longer player name than before");
+    for(String cmd : new String[]{"take photo", "go n", "go n", "take food", "eat food"}){
+        loaded.commandOutput(cmd);
+    }
+    assertTrue(loaded.saveGame(snapFile.getPath()));
+    for(int i = 0; i < descriptions.size(); i++){
+        assertEquals(descriptions.get(i), loaded.getSession().getAdventure().listAllRooms().get(i).getLongDescription());
+    }
+
+    Game reloaded = new Game();
+    assertTrue(reloaded.loadSave(snapFile.getPath()));
+    snapFile.delete();
+    assertEquals("A much longer player name than before", reloaded.getSession().getPlayer().getName());
+    assertEquals(1, reloaded.getSession().getPlayer().getInventory().size());
+    for(int i = 0; i < descriptions.size(); i++){
+        assertEquals(descriptions.get(i), reloaded.getSession().getAdventure().listAllRooms().get(i).getLongDescription());
+    }
+}
+}
@@ -0,0 +1,115 @@
+package adventure;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * METHOD CORRECT BEHAVIOUR ASSUMPTION
+ * Every connection will always play its own session of the shared adventure,
+ * connections over the limit will always be turned away, and idle or
+ * draining sessions will always be told why they are being disconnected.
+ */
+
+public class GameServerTest{
+    private GameServer server;
+    private int port;
+
+@Before
+public void setup() throws Exception{
+    server = new GameServer(WorldTemplate.loadDefault(), 2, 1);
+    port = server.start(0);
+}
+
+@After
+public void teardown(){
+    server.close();
+}
+
+/**
+ * Reads everything a client is sent up to and including the next prompt or the end of the connection.
+ * @param in reader for the client's connection
+ * @return the text that was read
+ * @throws Exception if the connection fails
+ */
+private static String readReply(BufferedReader in) throws Exception{
+    StringBuilder str = new StringBuilder();
+    int c = in.read();
+    while(c >= 0){
+        str.append((char) c);
+        if(str.length() >= 2 && str.charAt(str.length() - 2) == '>' && c == ' '){
+            break;
+        }
+        c = in.read();
+    }
+    return str.toString();
+}
+
+/**
+ * Opens a client connection to the server.
+ * @return the connected socket
+ * @throws Exception if the connection fails
+ */
+private Socket connect() throws Exception{
+    return new Socket(InetAddress.getLoopbackAddress(), port);
+}
+
+@Test
+public void testSessionsAreSeparate() throws Exception{
+    System.out.println("Testing each connection plays its own session of the adventure");
+    try (Socket one = connect(); Socket two = connect()){
+        BufferedReader inOne = new BufferedReader(new InputStreamReader(one.getInputStream(), StandardCharsets.UTF_8));
+        BufferedReader inTwo = new BufferedReader(new InputStreamReader(two.getInputStream(), StandardCharsets.UTF_8));
+        PrintWriter outOne = new PrintWriter(one.getOutputStream(), true);
+        PrintWriter outTwo = new PrintWriter(two.getOutputStream(), true);
+        String start = readReply(inOne);
+        assertEquals(start, readReply(inTwo));
+        outOne.println("take photo");
+        assertEquals("\n> ", readReply(inOne));
+        outTwo.println("inventory");
+        assertEquals("There are no items in your inventory.\n\n> ", readReply(inTwo));
+        outTwo.println("items");
+        assertEquals("PHOTO\n\n> ", readReply(inTwo));
+        outOne.println("q");
+        assertEquals("\n", readReply(inOne));
+    }
+    assertEquals(2, server.getAcceptedSessions());
+    assertEquals(4, server.getCommandCount());
+}
+
+@Test
+public void testFullServerAndIdleTimeout() throws Exception{
+    System.out.println("Testing connections over the limit are refused and idle sessions are closed");
+    try (Socket one = connect(); Socket two = connect()){
+        BufferedReader inOne = new BufferedReader(new InputStreamReader(one.getInputStream(), StandardCharsets.UTF_8));
+        readReply(inOne);
+        readReply(new BufferedReader(new InputStreamReader(two.getInputStream(), StandardCharsets.UTF_8)));
+        try (Socket three = connect()){
+            BufferedReader inThree = new BufferedReader(new InputStreamReader(three.getInputStream(), StandardCharsets.UTF_8));
+            assertEquals(GameServer.FULL_MESSAGE, readReply(inThree));
+        }
+        assertEquals(1, server.getRejectedSessions());
+        assertEquals(GameServer.IDLE_MESSAGE, readReply(inOne));
+    }
+}
+
+@Test
+public void testShutdownDrainsSessions() throws Exception{
+    System.out.println("Testing shutdown disconnects sessions that outlast the drain time");
+    try (Socket one = connect()){
+        BufferedReader inOne = new BufferedReader(new InputStreamReader(one.getInputStream(), StandardCharsets.UTF_8));
+        readReply(inOne);
+        assertTrue(!server.shutdown(0));
+        assertEquals(GameServer.SHUTDOWN_MESSAGE, readReply(inOne));
+    }
+    assertEquals(0, server.getActiveSessions());
+}
+}
@@ -0,0 +1,32 @@
+package adventure;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import org.junit.Test;
+
+/**
+ * METHOD CORRECT BEHAVIOUR ASSUMPTION
+ * run() will always start a script from a freshly loaded adventure
+ * and stop at the end of the script or at a quit command.
+ */
+
+public class HeadlessRunnerTest{
+
+@Test
+public void testScriptsStartFresh() throws Exception{
+    System.out.println("Testing every script runs against a fresh adventure and stops at quit");
+    HeadlessRunner runner = new HeadlessRunner(null);
+    String script = "take photo\ninventory\nq\nlook\n";
+    StringWriter first = new StringWriter();
+    assertEquals(3, runner.run(new BufferedReader(new StringReader(script)), first));
+    StringWriter second = new StringWriter();
+    assertEquals(3, runner.run(new BufferedReader(new StringReader(script)), second));
+    assertEquals(first.toString(), second.toString());
+    assertTrue(first.toString().contains("> inventory\nPHOTO\n"));
+    assertTrue(first.toString().endsWith("> q\n"));
+    assertEquals(6, runner.getCommandCount());
+}
+}
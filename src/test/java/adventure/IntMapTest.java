@@ -0,0 +1,66 @@
+package adventure;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import org.junit.Test;
+import org.junit.Before;
+
+/**
+ * METHOD CORRECT BEHAVIOUR ASSUMPTION
+ * get() will always return the value last put under a key,
+ * including after other keys were removed or the map has grown.
+ */
+
+public class IntMapTest{
+    private IntMap<String> mapTest;
+
+@Before
+public void setup(){
+    mapTest = new IntMap<String>();
+}
+
+@Test
+public void testGetMissingKey(){
+    System.out.println("Testing get with a key that was never put");
+    assertNull(mapTest.get(100));
+    assertFalse(mapTest.containsKey(100));
+}
+
+@Test
+public void testPutAndGetManyKeys(){
+    System.out.println("Testing put and get past the initial capacity");
+    for(int i = 0; i < 10000; i++){
+        mapTest.put(i * 7, "value" + i);
+    }
+    assertEquals(10000, mapTest.size());
+    for(int i = 0; i < 10000; i++){
+        assertEquals("value" + i, mapTest.get(i * 7));
+    }
+}
+
+@Test
+public void testPutReplacesValue(){
+    System.out.println("Testing put with a key that is already in the map");
+    mapTest.put(5, "old");
+    assertEquals("old", mapTest.put(5, "new"));
+    assertEquals("new", mapTest.get(5));
+    assertEquals(1, mapTest.size());
+}
+
+@Test
+public void testRemoveKeepsOtherKeys(){
+    System.out.println("Testing remove does not hide keys later in the probe run");
+    for(int i = 0; i < 1000; i++){
+        mapTest.put(i, "value" + i);
+    }
+    for(int i = 0; i < 1000; i += 2){
+        assertEquals("value" + i, mapTest.remove(i));
+    }
+    for(int i = 0; i < 1000; i++){
+        assertTrue((i % 2 == 1) == mapTest.containsKey(i));
+    }
+    assertEquals(500, mapTest.size());
+}
+}
@@ -0,0 +1,104 @@
+package adventure;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+import org.junit.Before;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+
+/**
+ * METHOD CORRECT BEHAVIOUR ASSUMPTION
+ * find() will always return the most recently picked up item with a name,
+ * no matter the case of the name, and list() will always return exactly the
+ * carried items that can be used in a way, in the order they were picked up.
+ * An item can always be used in every way its JSON flags or its class allow.
+ */
+
+public class InventoryTest{
+    private Player player;
+    private SmallFood apple;
+    private Clothing hat;
+
+@Before
+public void setup(){
+    player = new Player();
+    apple = new SmallFood();
+    apple.setItemName("Apple");
+    hat = new Clothing();
+    hat.setItemName("HAT");
+    player.addItem(apple);
+    player.addItem(hat);
+}
+
+@Test
+public void testFindItemByName(){
+    System.out.println("Testing find in any case after items are added, removed and renamed");
+    Inventory inventory = player.getInventoryIndex();
+    assertTrue(inventory.find("apple") == apple);
+    Item otherApple = new Item();
+    otherApple.setItemName("APPLE");
+    player.addItem(otherApple);
+    assertTrue(inventory.find("aPPle") == otherApple);
+    player.removeItem(otherApple);
+    assertTrue(inventory.find("apple") == apple);
+    hat.setItemName("HAT (Equipped)");
+    assertTrue(inventory.find("hat") == null);
+    assertTrue(inventory.find("hat (equipped)") == hat);
+    assertEquals(2, player.getInventory().size());
+}
+
+@Test
+public void testListByCapability(){
+    System.out.println("Testing list returns only the items that can be used that way");
+    Inventory inventory = player.getInventoryIndex();
+    assertEquals(1, inventory.list(Inventory.Capability.EDIBLE).size());
+    assertTrue(inventory.list(Inventory.Capability.EDIBLE).get(0) == apple);
+    assertTrue(inventory.list(Inventory.Capability.TOSSABLE).get(0) == apple);
+    assertTrue(inventory.list(Inventory.Capability.WEARABLE).get(0) == hat);
+    assertEquals(0, inventory.list(Inventory.Capability.READABLE).size());
+    player.removeItem(apple);
+    assertEquals(0, inventory.list(Inventory.Capability.EDIBLE).size());
+    assertEquals(0, inventory.list(Inventory.Capability.TOSSABLE).size());
+}
+
+@Test
+public void testFlagsGiveCapabilities() throws Exception{
+    System.out.println("Testing JSON flags give an item capabilities its class doesn't have");
+    JSONObject json = (JSONObject) new JSONParser().parse(
+        "{\"name\": \"Scroll\", \"id\": 7, \"desc\": \"A tasty scroll\", \"edible\": true, \"readable\": true}");
+    Item scroll = Adventure.createItem(json);
+    assertTrue(scroll.can(Inventory.Capability.EDIBLE));
+    assertTrue(scroll.can(Inventory.Capability.READABLE));
+    assertTrue(!scroll.can(Inventory.Capability.TOSSABLE));
+    assertTrue(hat.can(Inventory.Capability.WEARABLE));
+    player.addItem(scroll);
+    assertTrue(player.getInventoryIndex().list(Inventory.Capability.READABLE).get(0) == scroll);
+    assertEquals("You read the item: 'A tasty scroll'.\n", scroll.read());
+}
+
+@Test
+public void testCapabilityChangeMovesItem(){
+    System.out.println("Testing an item that changes capabilities moves to the matching lists");
+    Inventory inventory = player.getInventoryIndex();
+    Item bread = new Item();
+    bread.setItemName("Bread");
+    player.addItem(bread);
+    bread.setCapabilities(Inventory.Capability.EDIBLE.bit());
+    assertEquals(2, inventory.list(Inventory.Capability.EDIBLE).size());
+    assertTrue(inventory.list(Inventory.Capability.EDIBLE).get(1) == bread);
+    apple.setCapabilities(Inventory.Capability.READABLE.bit());
+    assertEquals(1, inventory.list(Inventory.Capability.EDIBLE).size());
+    assertEquals(0, inventory.list(Inventory.Capability.TOSSABLE).size());
+    assertTrue(inventory.list(Inventory.Capability.READABLE).get(0) == apple);
+    apple.setCapabilities(Inventory.Capability.EDIBLE.bit());
+    assertTrue(inventory.list(Inventory.Capability.EDIBLE).get(0) == apple);
+    assertTrue(inventory.list(Inventory.Capability.EDIBLE).get(1) == bread);
+}
+
+@Test(expected = UnsupportedOperationException.class)
+public void testInventoryListIsReadOnly(){
+    System.out.println("Testing the inventory list can't be changed behind the index");
+    player.getInventory().add(new Item());
+}
+}
@@ -40,4 +40,76 @@ public void testEntranceID() throws Exception{
     System.out.println("Testing generate adventure with entrance IDs that don't correspond to rooms in the dungeon");
     myGame.generateAdventure(myGame.loadJSON("badentranceID.json"));
 }
+@Test(expected = Exception.class)
+public void testStreamedExitSyntax() throws Exception{
+    System.out.println("Testing streamed adventure with bad exit syntax");
+    myGame.loadAdventure("src/test/java/adventure/badexit.json");
+}
+@Test(expected = Exception.class)
+public void testStreamedNoExit() throws Exception{
+    System.out.println("Testing streamed adventure with rooms with no exits");
+    myGame.loadAdventure("src/test/java/adventure/noexit.json");
+}
+@Test(expected = Exception.class)
+public void testStreamedBadItem() throws Exception{
+    System.out.println("Testing streamed adventure with items in room that aren't in the dungeon");
+    myGame.loadAdventure("src/test/java/adventure/baditem.json");
+}
+@Test(expected = Exception.class)
+public void testStreamedEntranceID() throws Exception{
+    System.out.println("Testing streamed adventure with entrance IDs that don't correspond to rooms in the dungeon");
+    myGame.loadAdventure("src/test/java/adventure/badentranceID.json");
+}
+@Test
+public void testStreamedDefaultAdventure() throws Exception{
+    System.out.println("Testing streamed default adventure connects rooms and loot");
+    Adventure adv = myGame.loadAdventure(myGame.getInputStream());
+    assertEquals(8, adv.listAllRooms().size());
+    assertEquals(8, adv.listAllItems().size());
+    assertEquals(100, adv.getCurrentRoom().getID());
+    assertEquals(101, adv.getCurrentRoom().getConnectedRoom("N").getID());
+    assertEquals("PHOTO", adv.getCurrentRoom().listItems().get(0).getName());
+}
+@Test
+public void testValidatorReportsEveryViolation() throws Exception{
+    System.out.println("Testing validation reports all violations, not just the first");
+    try{
+        myGame.loadAdventure("src/test/java/adventure/badexit.json");
+        fail("Adventure with bad exits should not load");
+    }catch(InvalidAdventureException e){
+        assertEquals(4, e.getViolations().size());
+        assertEquals(Violation.Rule.BAD_EXIT_SYNTAX, e.getViolations().get(0).getRule());
+        assertEquals(100, e.getViolations().get(0).getRoomID());
+        assertEquals("BAD", e.getViolations().get(0).getDirection());
+        assertEquals(Violation.Rule.NON_RECIPROCAL_EXIT, e.getViolations().get(3).getRule());
+    }
+}
+@Test
+public void testMissingExitDirection() throws Exception{
+    System.out.println("Testing an entrance without a direction is reported, not thrown as a crash");
+    try{
+        myGame.loadAdventure("src/test/java/adventure/nodir.json");
+        fail("Adventure with an entrance missing its direction should not load");
+    }catch(InvalidAdventureException e){
+        assertEquals(Violation.Rule.BAD_EXIT_SYNTAX, e.getViolations().get(0).getRule());
+        assertEquals(100, e.getViolations().get(0).getRoomID());
+        assertEquals(null, e.getViolations().get(0).getDirection());
+    }
+    try{
+        myGame.generateAdventure(myGame.loadJSON("src/test/java/adventure/nodir.json"));
+        fail("Adventure with an entrance missing its direction should not load");
+    }catch(InvalidAdventureException e){
+        assertEquals(Violation.Rule.BAD_EXIT_SYNTAX, e.getViolations().get(0).getRule());
+    }
+}
+@Test
+public void testStreamedAdventureSharesStrings() throws Exception{
+    System.out.println("Testing streamed adventure shares repeated strings between rooms");
+    Adventure adv = myGame.generateAdventure(new java.io.StringReader(StationGenerator.generate(3, 3)));
+    Room first = adv.getRegistry().getRoom(StationGenerator.roomID(3, 0, 0));
+    Room second = adv.getRegistry().getRoom(StationGenerator.roomID(3, 1, 1));
+    assertTrue(first.getShortDescription() == second.getShortDescription());
+    assertTrue(first.getEntranceDirList().get(0) == second.getEntranceDirList().get(0));
+    assertTrue(myGame.getLoadSummary().startsWith("Loaded 9 rooms and 9 items."));
+}
 }
@@ -0,0 +1,48 @@
+package adventure;
+
+/**
+ * Times the exception-based parser against the reusable-command parser on a mix of valid
+ * and invalid commands in the default adventure.
+ * Run with:
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=cp.txt
+ * java -cp target/classes:target/test-classes:$(cat cp.txt) adventure.ParserBenchmark
+ * An optional argument sets how many million commands are parsed per run (default 5).
+ */
+public class ParserBenchmark{
+    private static final String[] COMMANDS = {"look", "go n", "take photo", "GO North", "inventory",
+                                              "dance", "eat", "go sideways", "take unicorn", "items"};
+    private static final int WARMUP_RUNS = 2;
+
+    public static void main(String[] args) throws Exception{
+        int count = (args.length > 0 ? Integer.parseInt(args[0]) : 5) * 1000000;
+        Game game = new Game();
+        game.loadDefaultAdventure();
+        Parser parser = new Parser(game.getSession(), new VerbRegistry());
+
+        for(int run = 0; run <= WARMUP_RUNS; run++){
+            long start = System.nanoTime();
+            int rejected = 0;
+            for(int i = 0; i < count; i++){
+                try{
+                    parser.parseUserCommand(COMMANDS[i % COMMANDS.length]);
+                }catch(InvalidCommandException e){
+                    rejected++;
+                }
+            }
+            double oldRate = count / ((System.nanoTime() - start) / 1e9);
+
+            start = System.nanoTime();
+            int rejectedNew = 0;
+            for(int i = 0; i < count; i++){
+                if(!parser.validate(COMMANDS[i % COMMANDS.length]).isValid()){
+                    rejectedNew++;
+                }
+            }
+            double newRate = count / ((System.nanoTime() - start) / 1e9);
+            if(run == WARMUP_RUNS){
+                System.out.printf("exceptions: %.2f M commands/s (%d rejected)%n", oldRate / 1e6, rejected);
+                System.out.printf("reusable:   %.2f M commands/s (%d rejected)%n", newRate / 1e6, rejectedNew);
+            }
+        }
+    }
+}
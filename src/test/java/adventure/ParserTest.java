@@ -0,0 +1,109 @@
+package adventure;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+import org.junit.Before;
+
+/**
+ * METHOD CORRECT BEHAVIOUR ASSUMPTION
+ * parse() will always accept the same commands as parseUserCommand()
+ * and reject the others with the same message, without throwing.
+ */
+
+public class ParserTest{
+    private Parser parserTest;
+    private Game myGame;
+
+@Before
+public void setup() throws Exception{
+    myGame = new Game();
+    myGame.loadDefaultAdventure();
+    parserTest = new Parser(myGame.getSession(), new VerbRegistry());
+}
+
+@Test
+public void testParseMatchesParseUserCommand() throws Exception{
+    System.out.println("Testing parse gives the same result as parseUserCommand");
+    myGame.commandOutput("take photo");
+    String[] lines = {"", "look", "LOOK", "help", "q", "Quit", "items", "inventory", "dance", "dance now",
+                      "go", "take", "eat", "EAT", "go n", "Go North", "go s", "go sideways", "go  n",
+                      "take unicorn", "look photo", "help me", "eat photo", "wear photo", "toss photo",
+                      "read photo", "read nothing", "go ", "take PHOTO"};
+    for(String line : lines){
+        Command cmd = parserTest.parse(line);
+        ValidationResult result = cmd.validate();
+        try{
+            Command expected = parserTest.parseUserCommand(line);
+            assertTrue(line, result.isValid());
+            assertTrue(line, cmd.getActionWord().equalsIgnoreCase(expected.getActionWord()));
+            assertEquals(line, expected.getNoun(), cmd.getNoun());
+        }catch(InvalidCommandException e){
+            assertEquals(line, e.getMessage(), result.getMessage());
+            assertEquals(line, e.getResult().getProblem(), result.getProblem());
+        }
+    }
+}
+
+@Test
+public void testParseReusesCommand(){
+    System.out.println("Testing parse resolves verbs in any case into one reused command");
+    Command first = parserTest.parse("TaKe photo");
+    assertEquals(Verb.TAKE, first.getVerb());
+    assertEquals("photo", first.getNoun());
+    Command second = parserTest.parse("inventory");
+    assertTrue(first == second);
+    assertEquals(Verb.INVENTORY, second.getVerb());
+    assertNull(second.getNoun());
+    assertEquals(Verb.QUIT, VerbRegistry.lookupBuiltIn("QUIT"));
+    assertNull(VerbRegistry.lookupBuiltIn("quits"));
+}
+
+@Test
+public void testValidateWithoutThrowing(){
+    System.out.println("Testing validate reports error codes and builds messages on request");
+    assertTrue(parserTest.validate("look") == ValidationResult.VALID);
+    ValidationResult result = parserTest.validate("eat");
+    assertEquals(Command.Problem.MISSING_INVENTORY_ITEM, result.getProblem());
+    assertEquals("You must enter an item in your inventory after 'eat'.\n", result.getMessage());
+    assertEquals(Command.Problem.BLOCKED_DIRECTION, parserTest.validate("go s").getProblem());
+    assertEquals(Command.Problem.BAD_DIRECTION, parserTest.validate("go sideways").getProblem());
+    assertNull(ValidationResult.VALID.getMessage());
+}
+
+@Test
+public void testRegisteredVerb(){
+    System.out.println("Testing a verb registered with the parser is checked and carried out");
+    parserTest.getVerbRegistry().register(new VerbHandler(){
+        public String getWord(){ return "xyzzy";}
+        public boolean isOneWord(){ return true;}
+        public boolean isTwoWord(){ return false;}
+        public String execute(Command cmd, Adventure adventure){ return "Nothing happens.\n";}
+    });
+    myGame.setParser(parserTest);
+    assertEquals("Nothing happens.\n", myGame.commandOutput("XYZZY"));
+    assertEquals("Sorry, I don't recognize 'xyzzy\n", myGame.commandOutput("xyzzy now"));
+    assertTrue(myGame.commandOutput("look").startsWith(myGame.getSession().getAdventure().getCurrentRoom().getLongDescription()));
+}
+
+@Test
+public void testRenderIntoReusedBuffer(){
+    System.out.println("Testing commands rendered into one reused buffer match their string output");
+    Adventure adventure = myGame.getSession().getAdventure();
+    StringBuilder out = new StringBuilder();
+    String[] lines = {"look", "items", "inventory", "help", "take photo", "inventory", "look photo", "items"};
+    for(String line : lines){
+        Command cmd = parserTest.parse(line);
+        out.setLength(0);
+        assertTrue(line, adventure.parseCommand(cmd, out));
+        String rendered = out.toString();
+        if(!line.startsWith("take")){
+            assertEquals(line, adventure.parseCommand(parserTest.parse(line)), rendered);
+        }
+    }
+    out.setLength(0);
+    assertTrue(!adventure.parseCommand(parserTest.parse("quit"), out));
+    assertEquals(0, out.length());
+}
+}
@@ -3,6 +3,7 @@ package adventure;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.fail;
 import static org.junit.Assert.assertTrue;
+import java.util.HashMap;
 import org.junit.Test;
 import org.junit.Before;
 
@@ -65,4 +66,70 @@ public void testGetConnectedRoomWithSUpperInput(){
     assertTrue(roomTest.getConnectedRoom("S").equals(connectedRoom));
 }
 
+
+@Test
+public void testGetConnectedRoomWithDirection(){
+    System.out.println("Testing getConnectedRoom with a direction and its opposite");
+    roomTest.setConnectedRoom("up", connectedRoom);
+    connectedRoom.setConnectedRoom(Direction.UP.opposite(), roomTest);
+    assertTrue(roomTest.getConnectedRoom(Direction.UP).equals(connectedRoom));
+    assertTrue(connectedRoom.getConnectedRoom("Down").equals(roomTest));
+    assertTrue(roomTest.getConnectedRoom(Direction.N) == null);
+}
+
+@Test
+public void testFindItemByName(){
+    System.out.println("Testing findItem in any case after items are added, removed and renamed");
+    Item pen = new Item();
+    pen.setItemName("PEN");
+    Item otherPen = new Item();
+    otherPen.setItemName("Pen");
+    roomTest.addItem(pen);
+    assertTrue(roomTest.findItem("pen") == pen);
+    roomTest.addItem(otherPen);
+    assertTrue(roomTest.findItem("pEn") == otherPen);
+    roomTest.removeItem(otherPen);
+    assertTrue(roomTest.findItem("PEN") == pen);
+    pen.setContainingRoom(roomTest);
+    pen.setItemName("QUILL");
+    assertTrue(roomTest.findItem("pen") == null);
+    assertTrue(roomTest.findItem("quill") == pen);
+}
+
+@Test
+public void testRenderViewAfterChanges(){
+    System.out.println("Testing the rendered room view is reused until the room or its items change");
+    roomTest.setRoomName("Bridge");
+    roomTest.setShortDesc("The ship's bridge.");
+    StringBuilder out = new StringBuilder();
+    roomTest.renderView(out);
+    assertEquals("You are in Bridge\nThe ship's bridge.\nItems:\nThere are no items in this room.\n", out.toString());
+    Item pen = new Item();
+    pen.setItemName("pen");
+    roomTest.addItem(pen);
+    pen.setContainingRoom(roomTest);
+    out.setLength(0);
+    roomTest.renderItemNames(out);
+    assertEquals("pen\n", out.toString());
+    pen.setItemName("pen (Equipped)");
+    out.setLength(0);
+    roomTest.renderView(out);
+    assertEquals("You are in Bridge\nThe ship's bridge.\nItems:\npen (Equipped)\n", out.toString());
+    roomTest.removeItem(pen);
+    out.setLength(0);
+    roomTest.renderItemNames(out);
+    assertEquals("There are no items in this room.\n", out.toString());
+}
+
+@Test
+public void testSetMapLeavesCallerMapAlone(){
+    System.out.println("Testing setMap doesn't change the map it is given");
+    HashMap<String, Room> exits = new HashMap<String, Room>();
+    exits.put("N", connectedRoom);
+    exits.put("FAKE", connectedRoom);
+    roomTest.setMap(exits);
+    assertEquals(2, exits.size());
+    assertTrue(roomTest.getConnectedRoom("north") == connectedRoom);
+    assertTrue(roomTest.getConnectedRoom("FAKE") == connectedRoom);
+}
 }
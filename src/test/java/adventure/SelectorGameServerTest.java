@@ -0,0 +1,206 @@
+package adventure;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * METHOD CORRECT BEHAVIOUR ASSUMPTION
+ * Every complete line a client sends will always be answered once, in order,
+ * however the line is split across or packed into writes, and a client that
+ * doesn't read its output will always be held back rather than buffered for,
+ * and disconnected once it has been idle too long.
+ */
+
+public class SelectorGameServerTest{
+    private SelectorGameServer server;
+    private int port;
+
+@Before
+public void setup() throws Exception{
+    server = new SelectorGameServer(WorldTemplate.loadDefault(), 2, 0);
+    server.setWatermarks(1024, 4096);
+    port = server.start(0);
+}
+
+@After
+public void teardown(){
+    server.close();
+}
+
+/**
+ * Reads everything a client is sent up to and including the next prompt or the end of the connection.
+ * @param in reader for the client's connection
+ * @return the text that was read
+ * @throws Exception if the connection fails
+ */
+private static String readReply(BufferedReader in) throws Exception{
+    StringBuilder str = new StringBuilder();
+    int c = in.read();
+    while(c >= 0){
+        str.append((char) c);
+        if(str.length() >= 2 && str.charAt(str.length() - 2) == '>' && c == ' '){
+            break;
+        }
+        c = in.read();
+    }
+    return str.toString();
+}
+
+/**
+ * Opens a client connection to the server.
+ * @return the connected socket
+ * @throws Exception if the connection fails
+ */
+private Socket connect() throws Exception{
+    return new Socket(InetAddress.getLoopbackAddress(), port);
+}
+
+@Test
+public void testLinesAreFramed() throws Exception{
+    System.out.println("Testing split and packed lines are each answered once, in order");
+    try (Socket one = connect(); Socket two = connect()){
+        BufferedReader inOne = new BufferedReader(new InputStreamReader(one.getInputStream(), StandardCharsets.UTF_8));
+        BufferedReader inTwo = new BufferedReader(new InputStreamReader(two.getInputStream(), StandardCharsets.UTF_8));
+        OutputStream outOne = one.getOutputStream();
+        String start = readReply(inOne);
+        assertEquals(start, readReply(inTwo));
+        outOne.write("take ph".getBytes(StandardCharsets.UTF_8));
+        outOne.flush();
+        Thread.sleep(50);
+        outOne.write("oto\r\ninventory\nitems\n".getBytes(StandardCharsets.UTF_8));
+        outOne.flush();
+        assertEquals("\n> ", readReply(inOne));
+        assertEquals("PHOTO\n\n> ", readReply(inOne));
+        assertEquals("There are no items in this room.\n\n> ", readReply(inOne));
+        two.getOutputStream().write("items\nq\n".getBytes(StandardCharsets.UTF_8));
+        assertEquals("PHOTO\n\n> ", readReply(inTwo));
+        assertEquals("\n", readReply(inTwo));
+        try (Socket three = connect()){
+            BufferedReader inThree = new BufferedReader(new InputStreamReader(three.getInputStream(), StandardCharsets.UTF_8));
+            assertTrue(readReply(inThree).startsWith(start.substring(0, 20)));
+        }
+    }
+    assertEquals(5, server.getCommandCount());
+}
+
+@Test
+public void testSlowReaderIsHeldBack() throws Exception{
+    System.out.println("Testing a client that doesn't read is held back and then answered in full");
+    final int lines = 50000;
+    try (Socket one = connect()){
+        BufferedReader inOne = new BufferedReader(new InputStreamReader(one.getInputStream(), StandardCharsets.UTF_8));
+        readReply(inOne);
+        final OutputStream outOne = one.getOutputStream();
+        Thread writer = new Thread(() -> {
+            try {
+                for(int i = 0; i < lines; i++){
+                    outOne.write("look\n".getBytes(StandardCharsets.UTF_8));
+                }
+                outOne.flush();
+            } catch (Exception e) {
+                return;
+            }
+        });
+        writer.start();
+        Thread.sleep(500);
+        assertTrue(server.getCommandCount() < lines);
+        assertTrue(server.getBackpressurePauses() > 0);
+        String look = readReply(inOne);
+        for(int i = 1; i < lines; i++){
+            assertEquals(look, readReply(inOne));
+        }
+        writer.join();
+    }
+    assertEquals(lines, server.getCommandCount());
+}
+
+@Test
+public void testShutdownLetsPlayersFinish() throws Exception{
+    System.out.println("Testing shutdown lets connected players keep playing until they quit");
+    try (Socket one = connect()){
+        BufferedReader inOne = new BufferedReader(new InputStreamReader(one.getInputStream(), StandardCharsets.UTF_8));
+        readReply(inOne);
+        final boolean[] drained = new boolean[1];
+        Thread stopper = new Thread(() -> {
+            try {
+                drained[0] = server.shutdown(5);
+            } catch (InterruptedException e) {
+                return;
+            }
+        });
+        stopper.start();
+        Thread.sleep(200);
+        one.getOutputStream().write("items\nq\n".getBytes(StandardCharsets.UTF_8));
+        assertEquals("PHOTO\n\n> ", readReply(inOne));
+        assertEquals("\n", readReply(inOne));
+        stopper.join();
+        assertTrue(drained[0]);
+    }
+    assertEquals(0, server.getActiveSessions());
+}
+
+@Test
+public void testShutdownDrainsSessions() throws Exception{
+    System.out.println("Testing shutdown disconnects sessions that outlast the drain time");
+    try (Socket one = connect()){
+        BufferedReader inOne = new BufferedReader(new InputStreamReader(one.getInputStream(), StandardCharsets.UTF_8));
+        readReply(inOne);
+        assertTrue(!server.shutdown(0));
+        assertEquals(GameServer.SHUTDOWN_MESSAGE, readReply(inOne));
+    }
+    assertEquals(0, server.getActiveSessions());
+}
+
+@Test
+public void testIdleSlowReaderIsDisconnected() throws Exception{
+    System.out.println("Testing a client that stops reading gives up its session once it is idle");
+    SelectorGameServer small = new SelectorGameServer(WorldTemplate.loadDefault(), 1, 1);
+    small.setWatermarks(1024, 1024 * 1024);
+    int smallPort = small.start(0);
+    try (Socket one = new Socket()){
+        one.setReceiveBufferSize(4096);
+        one.connect(new InetSocketAddress(InetAddress.getLoopbackAddress(), smallPort));
+        BufferedReader inOne = new BufferedReader(new InputStreamReader(one.getInputStream(), StandardCharsets.UTF_8));
+        String start = readReply(inOne);
+        final OutputStream outOne = one.getOutputStream();
+        Thread writer = new Thread(() -> {
+            try {
+                for(int i = 0; i < 100000; i++){
+                    outOne.write("look\n".getBytes(StandardCharsets.UTF_8));
+                }
+                outOne.flush();
+            } catch (Exception e) {
+                return;
+            }
+        });
+        writer.setDaemon(true);
+        writer.start();
+        for(int i = 0; i < 50 && small.getActiveSessions() > 0; i++){
+            Thread.sleep(100);
+        }
+        assertEquals(0, small.getActiveSessions());
+        try (Socket two = new Socket(InetAddress.getLoopbackAddress(), smallPort)){
+            BufferedReader inTwo = new BufferedReader(new InputStreamReader(two.getInputStream(), StandardCharsets.UTF_8));
+            assertEquals(start, readReply(inTwo));
+        }
+    } finally {
+        small.close();
+    }
+}
+
+@Test(expected = IllegalArgumentException.class)
+public void testWatermarksMustBeOrdered(){
+    System.out.println("Testing a low watermark at or above the high watermark is rejected");
+    server.setWatermarks(4096, 4096);
+}
+}
@@ -0,0 +1,70 @@
+package adventure;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * METHOD CORRECT BEHAVIOUR ASSUMPTION
+ * commandOutput() will always check and carry out a command against
+ * its own session's adventure and player, no matter how many other
+ * sessions are being played in the same JVM.
+ */
+
+public class SessionTest{
+
+@Test
+public void testSessionsPlayIndependently() throws Exception{
+    System.out.println("Testing two sessions in one JVM don't share rooms or inventories");
+    Game first = new Game();
+    first.loadDefaultAdventure();
+    Game second = new Game();
+    second.loadDefaultAdventure();
+    Session one = first.getSession();
+    Session two = second.getSession();
+    one.getPlayer().setCurrentRoom(one.getAdventure().getCurrentRoom());
+    two.getPlayer().setCurrentRoom(two.getAdventure().getCurrentRoom());
+
+    assertEquals("", one.commandOutput("take photo"));
+    assertEquals("PHOTO\n", one.commandOutput("inventory"));
+    assertEquals("There are no items in your inventory.\n", two.commandOutput("inventory"));
+    assertEquals("", two.commandOutput("take photo"));
+    one.commandOutput("go n");
+    assertTrue(one.getPlayer().getCurrentRoom() != two.getPlayer().getCurrentRoom());
+    assertEquals(one.getAdventure().getCurrentRoom(), one.getPlayer().getCurrentRoom());
+    StringBuilder out = new StringBuilder();
+    assertTrue(two.respond("look photo", out));
+    assertEquals("photo is not an item in the room. Type 'items' for a list of items in the room.\n", out.toString());
+    assertTrue(!one.respond("quit", new StringBuilder()));
+}
+
+@Test
+public void testOnlyEntryPointGameIsCurrent() throws Exception{
+    System.out.println("Testing creating a game doesn't replace the console game's session");
+    Game console = new Game();
+    console.loadDefaultAdventure();
+    console.makeCurrent();
+    Game other = new Game();
+    other.loadDefaultAdventure();
+    assertEquals(console.getSession(), Game.getCurrentSession());
+    assertEquals(console.getSession().getPlayer(), Game.getPlayer());
+    assertEquals(console.getSession(), new Command("look").getSession());
+    assertEquals(console.getSession(), new Parser().getSession());
+    other.commandOutput("take photo");
+    assertEquals(0, Game.getPlayer().getInventory().size());
+}
+
+@Test
+public void testParserFollowsCurrentGame() throws Exception{
+    System.out.println("Testing a parser without a session dispatches to the current console game");
+    Game first = new Game();
+    first.loadDefaultAdventure();
+    first.makeCurrent();
+    Parser parser = new Parser();
+    assertEquals(first.getSession(), parser.parse("look").getSession());
+    Game second = new Game();
+    second.loadDefaultAdventure();
+    second.makeCurrent();
+    assertEquals(second.getSession(), parser.parse("look").getSession());
+}
+}
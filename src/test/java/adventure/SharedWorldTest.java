@@ -0,0 +1,98 @@
+package adventure;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Test;
+import org.junit.Before;
+
+/**
+ * METHOD CORRECT BEHAVIOUR ASSUMPTION
+ * Players of a shared world will always see the changes other players make,
+ * and an item will always be in exactly one room or inventory, however many
+ * players try to take and toss it at the same time.
+ */
+
+public class SharedWorldTest{
+    private SharedWorld world;
+    private VerbRegistry verbs;
+
+@Before
+public void setup() throws Exception{
+    world = SharedWorld.loadDefault();
+    verbs = new VerbRegistry();
+}
+
+@Test
+public void testPlayersSeeEachOther(){
+    System.out.println("Testing an item taken by one player is gone for every player");
+    Session one = world.newSession(verbs);
+    Session two = world.newSession(verbs);
+    assertEquals("PHOTO\n", two.commandOutput("items"));
+    one.commandOutput("take photo");
+    assertEquals("There are no items in this room.\n", two.commandOutput("items"));
+    assertEquals("photo is not an item in the room. Type 'items' for a list of items in the room.\n",
+                 two.commandOutput("take photo"));
+    assertEquals("There are no items in your inventory.\n", two.commandOutput("inventory"));
+    assertEquals("There are no items in this room.\n", world.newSession(verbs).commandOutput("items"));
+}
+
+@Test
+public void testTakeAndTossUnderContention() throws Exception{
+    System.out.println("Testing concurrent take and toss never lose or duplicate an item");
+    final int players = 8;
+    final int rounds = 2000;
+    final CountDownLatch ready = new CountDownLatch(players);
+    final AtomicInteger takes = new AtomicInteger();
+    final AtomicInteger tosses = new AtomicInteger();
+    final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+    final ArrayList<Session> sessions = new ArrayList<Session>();
+    ArrayList<Thread> threads = new ArrayList<Thread>();
+    for(int i = 0; i < players; i++){
+        final Session session = world.newSession(verbs);
+        session.commandOutput("go n");
+        sessions.add(session);
+        Thread thread = new Thread(() -> {
+            try {
+                ready.countDown();
+                ready.await();
+                for(int round = 0; round < rounds; round++){
+                    session.commandOutput("take pen");
+                    session.commandOutput("items");
+                    if(session.getPlayer().getInventoryIndex().find("pen") != null){
+                        takes.incrementAndGet();
+                        session.commandOutput("toss pen");
+                        tosses.incrementAndGet();
+                    }
+                }
+            } catch (Throwable e) {
+                failure.set(e);
+            }
+        });
+        threads.add(thread);
+        thread.start();
+    }
+    for(Thread thread : threads){
+        thread.join();
+    }
+    assertEquals(null, failure.get());
+    assertTrue(takes.get() > 0);
+    assertEquals(takes.get(), tosses.get());
+    int pens = 0;
+    for(Session session : sessions){
+        pens += session.getPlayer().getInventory().size();
+    }
+    Room tranquility = sessions.get(0).getAdventure().getCurrentRoom();
+    for(Item item : tranquility.listItems()){
+        if(item.getName().equals("PEN")){
+            pens++;
+        }
+    }
+    assertEquals(1, pens);
+    assertTrue(world.getLocks().getAcquisitions() >= players * rounds * 2);
+    System.out.println(world.getLocks());
+}
+}
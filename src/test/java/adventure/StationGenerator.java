@@ -0,0 +1,77 @@
+package adventure;
+
+/**
+ * Generates large adventure JSON files for benchmarks. Rooms are laid out on a grid,
+ * each joined to its neighbours with matching exits, and every room holds one item.
+ */
+public class StationGenerator{
+    private static final String[] FLAGS = {"", "\"edible\": true", "\"wearable\": true", "\"tossable\": true",
+                                           "\"readable\": true", "\"edible\": true, \"tossable\": true",
+                                           "\"wearable\": true, \"readable\": true"};
+
+    /**
+     * Builds the JSON for a width by height station.
+     * @param width number of rooms from west to east
+     * @param height number of rooms from south to north
+     * @return the adventure JSON
+     */
+    public static String generate(int width, int height){
+        StringBuilder json = new StringBuilder();
+        json.append("{\"adventure\": {\n\"room\": [\n");
+        for(int y = 0; y < height; y++){
+            for(int x = 0; x < width; x++){
+                int id = roomID(width, x, y);
+                if(id != roomID(width, 0, 0)){ json.append(",\n");}
+                json.append("{\"id\": ").append(id);
+                if(id == roomID(width, 0, 0)){ json.append(", \"start\": \"true\"");}
+                json.append(", \"name\": \"MODULE ").append(x).append('-').append(y).append('"');
+                json.append(", \"short_description\": \"THIS IS A MODULE OF THE STATION.\"");
+                json.append(", \"long_description\": \"THE MODULE IS QUIET. PANELS HUM ALONG THE WALLS.\"");
+                json.append(", \"entrance\": [");
+                appendEntrance(json, y + 1 < height, roomID(width, x, y + 1), "N", false);
+                appendEntrance(json, x + 1 < width, roomID(width, x + 1, y), "E", y + 1 < height);
+                appendEntrance(json, y > 0, roomID(width, x, y - 1), "S", y + 1 < height || x + 1 < width);
+                appendEntrance(json, x > 0, roomID(width, x - 1, y), "W", y + 1 < height || x + 1 < width || y > 0);
+                json.append("], \"loot\": [{\"id\": ").append(id).append("}]}");
+            }
+        }
+        json.append("\n],\n\"item\": [\n");
+        for(int i = 0; i < width * height; i++){
+            if(i > 0){ json.append(",\n");}
+            String flags = FLAGS[i % FLAGS.length];
+            json.append("{\"id\": ").append(i + 1).append(", \"name\": \"PART ").append(i + 1)
+                .append("\", \"desc\": \"A SPARE PART FOR THE STATION.\"");
+            if(flags.length() > 0){ json.append(", ").append(flags);}
+            json.append('}');
+        }
+        json.append("\n]\n}}\n");
+        return json.toString();
+    }
+
+    /**
+     * Gets the ID of the room at a grid position.
+     * @param width number of rooms from west to east
+     * @param x column of the room
+     * @param y row of the room
+     * @return the room ID
+     */
+    public static int roomID(int width, int x, int y){
+        return y * width + x + 1;
+    }
+
+    /**
+     * Appends one entrance to a room's entrance array if the neighbour exists.
+     * @param json the JSON being built
+     * @param exists true if the neighbouring room exists
+     * @param id ID of the neighbouring room
+     * @param dir direction of the neighbouring room
+     * @param needsComma true if an entrance has already been written
+     */
+    private static void appendEntrance(StringBuilder json, boolean exists, int id, String dir, boolean needsComma){
+        if(!exists){
+            return;
+        }
+        if(needsComma){ json.append(", ");}
+        json.append("{\"id\": ").append(id).append(", \"dir\": \"").append(dir).append("\"}");
+    }
+}
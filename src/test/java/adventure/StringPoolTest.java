@@ -0,0 +1,50 @@
+package adventure;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+import org.junit.Before;
+
+/**
+ * METHOD CORRECT BEHAVIOUR ASSUMPTION
+ * intern() will always return the first instance of an equal string it was
+ * given, and the memory saved will always count each dropped copy once.
+ */
+
+public class StringPoolTest{
+    private StringPool pool;
+
+@Before
+public void setup(){
+    pool = new StringPool();
+}
+
+@Test
+public void testInternSharesEqualStrings(){
+    System.out.println("Testing intern returns the first instance of each distinct string");
+    String first = new String("NORTH");
+    String second = new String("NORTH");
+    assertTrue(pool.intern(first) == first);
+    assertTrue(pool.intern(second) == first);
+    assertTrue(pool.intern("SOUTH") != first);
+    assertEquals(null, pool.intern(null));
+    assertEquals(2, pool.size());
+    assertEquals(1, pool.getSharedCount());
+}
+
+@Test
+public void testBytesSavedCountsDroppedCopies(){
+    System.out.println("Testing the memory saved counts every dropped copy of a repeated string");
+    assertEquals(0, pool.getBytesSaved());
+    pool.intern(new String("PEN"));
+    assertEquals(0, pool.getBytesSaved());
+    pool.intern(new String("PEN"));
+    pool.intern(new String("PEN"));
+    long perCopy = pool.getBytesSaved() / 2;
+    assertEquals(2 * perCopy, pool.getBytesSaved());
+    pool.intern(new String("TOOTHBRUSH"));
+    pool.intern(new String("TOOTHBRUSH"));
+    assertEquals(2 * perCopy + perCopy + "TOOTHBRUSH".length() - "PEN".length(), pool.getBytesSaved());
+    assertEquals(3, pool.getSharedCount());
+}
+}
@@ -0,0 +1,42 @@
+package adventure;
+import java.io.StringReader;
+
+/**
+ * Times adventure validation on a large generated station with 1, 2, 4 and 8 threads.
+ * Run with:
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=cp.txt
+ * java -cp target/classes:target/test-classes:$(cat cp.txt) adventure.ValidationBenchmark
+ * An optional argument sets the width of the square station (default 700, about 490,000 rooms).
+ */
+public class ValidationBenchmark{
+    private static final int[] THREAD_COUNTS = {1, 2, 4, 8};
+    private static final int WARMUP_RUNS = 3;
+    private static final int TIMED_RUNS = 5;
+
+    public static void main(String[] args) throws Exception{
+        int width = args.length > 0 ? Integer.parseInt(args[0]) : 700;
+        Game game = new Game();
+        Adventure adventure = game.generateAdventure(new StringReader(StationGenerator.generate(width, width)));
+        AdventureValidator validator = new AdventureValidator();
+        System.out.println("Rooms: " + adventure.listAllRooms().size() + ", cores available: "
+                           + Runtime.getRuntime().availableProcessors());
+
+        double baseline = 0;
+        for(int threads : THREAD_COUNTS){
+            for(int i = 0; i < WARMUP_RUNS; i++){
+                validator.validate(adventure, threads);
+            }
+            long start = System.nanoTime();
+            int violations = 0;
+            for(int i = 0; i < TIMED_RUNS; i++){
+                violations += validator.validate(adventure, threads).size();
+            }
+            double millis = (System.nanoTime() - start) / 1e6 / TIMED_RUNS;
+            if(threads == 1){
+                baseline = millis;
+            }
+            System.out.printf("threads=%d  %.1f ms/validation  speedup %.2fx  violations=%d%n",
+                              threads, millis, baseline / millis, violations);
+        }
+    }
+}
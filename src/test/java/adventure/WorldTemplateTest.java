@@ -0,0 +1,79 @@
+package adventure;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+import org.junit.Before;
+
+/**
+ * METHOD CORRECT BEHAVIOUR ASSUMPTION
+ * Sessions created from one template will always see only their own
+ * changes, and playing them will never change the template.
+ */
+
+public class WorldTemplateTest{
+    private WorldTemplate template;
+    private VerbRegistry verbs;
+
+@Before
+public void setup() throws Exception{
+    template = WorldTemplate.loadDefault();
+    verbs = new VerbRegistry();
+}
+
+@Test
+public void testSessionsCopyOnWrite(){
+    System.out.println("Testing sessions sharing a template only copy what they change");
+    Session one = template.newSession(verbs);
+    Session two = template.newSession(verbs);
+    Room start = template.getWorld().getCurrentRoom();
+    assertTrue(one.getAdventure().getCurrentRoom() == start);
+
+    one.commandOutput("take photo");
+    assertEquals("There are no items in this room.\n", one.commandOutput("items"));
+    assertEquals("PHOTO\n", one.commandOutput("inventory"));
+    assertEquals("PHOTO\n", two.commandOutput("items"));
+    assertEquals(1, start.listItems().size());
+    assertTrue(one.getAdventure().getCurrentRoom() != start);
+    assertTrue(two.getAdventure().getCurrentRoom() == start);
+    assertTrue(one.getPlayer().getCurrentRoom() == one.getAdventure().getCurrentRoom());
+
+    one.commandOutput("go n");
+    one.commandOutput("go s");
+    assertEquals("There are no items in this room.\n", one.commandOutput("items"));
+    assertEquals(template.getWorld().listAllItems().size(), one.getAdventure().listAllItems().size());
+    assertEquals(1, start.listItems().size());
+}
+
+@Test
+public void testSharedSessionSaves() throws Exception{
+    System.out.println("Testing a session sharing a template is captured like a full adventure");
+    Session one = template.newSession(verbs);
+    one.commandOutput("take photo");
+    GameSave save = GameSave.capture(one.getAdventure(), one.getPlayer());
+    Game game = new Game();
+    game.loadDefaultAdventure();
+    save.apply(game.getSession().getAdventure(), game.getSession().getPlayer());
+    assertEquals("PHOTO\n", game.getSession().commandOutput("inventory"));
+    assertEquals("There are no items in this room.\n", game.getSession().commandOutput("items"));
+}
+
+@Test
+public void testEatingLeavesTemplateItems() throws Exception{
+    System.out.println("Testing an item eaten in one session is only gone from that session");
+    Session one = template.newSession(verbs);
+    Session two = template.newSession(verbs);
+    int total = template.getWorld().listAllItems().size();
+    for(String cmd : new String[]{"go n", "go n", "take food", "eat food"}){
+        one.commandOutput(cmd);
+    }
+    assertEquals(total - 1, one.getAdventure().listAllItems().size());
+    assertEquals(total, two.getAdventure().listAllItems().size());
+    assertEquals(total, template.getWorld().listAllItems().size());
+
+    Game game = new Game();
+    game.loadDefaultAdventure();
+    GameSave.capture(one.getAdventure(), one.getPlayer()).apply(game.getSession().getAdventure(), game.getSession().getPlayer());
+    assertEquals(total - 1, game.getSession().getAdventure().listAllItems().size());
+}
+}